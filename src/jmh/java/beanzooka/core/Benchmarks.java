@@ -0,0 +1,65 @@
+package beanzooka.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+final class Benchmarks {
+
+    private Benchmarks() {
+        // static class
+    }
+
+    static Path createTree(Path root, int dirs, int filesPerDir, int fileSize) throws IOException {
+        Random random = new Random(0);
+        byte[] content = new byte[fileSize];
+        for (int i = 0; i < dirs; i++) {
+            Path dir = Files.createDirectories(root.resolve("dir" + i).resolve("sub" + (i % 3)));
+            for (int j = 0; j < filesPerDir; j++) {
+                random.nextBytes(content);
+                Files.write(dir.resolve("file" + j + ".dat"), content);
+            }
+        }
+        return root;
+    }
+
+    static Path createNbm(Path file, int entries, int entrySize) throws IOException {
+        Random random = new Random(0);
+        byte[] content = new byte[entrySize];
+        try (OutputStream stream = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(stream)) {
+            zip.putNextEntry(new ZipEntry("Info/info.xml"));
+            for (int i = 0; i < entries; i++) {
+                // half random, half zeros to get a realistic compression ratio
+                random.nextBytes(content);
+                Arrays.fill(content, entrySize / 2, entrySize, (byte) 0);
+                zip.putNextEntry(new ZipEntry("netbeans/modules/dir" + (i % 50) + "/entry" + i + ".bin"));
+                zip.write(content);
+            }
+        }
+        return file;
+    }
+
+    static void deleteTree(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
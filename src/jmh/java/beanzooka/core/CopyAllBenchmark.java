@@ -0,0 +1,75 @@
+package beanzooka.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sequential walker with the fork/join copy on a tree of small files.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class CopyAllBenchmark {
+
+    @Param({"20"})
+    public int dirs;
+
+    @Param({"500"})
+    public int filesPerDir;
+
+    // 0 stands for the sequential walker
+    @Param({"0", "1", "2", "4", "8"})
+    public int parallelism;
+
+    private Path source;
+    private Path destination;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        source = Benchmarks.createTree(Files.createTempDirectory("bench-source"), dirs, filesPerDir, 2048);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        Benchmarks.deleteTree(source);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        destination = Files.createTempDirectory("bench-destination");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws IOException {
+        Benchmarks.deleteTree(destination);
+    }
+
+    @Benchmark
+    public void copyAll() throws IOException {
+        if (parallelism == 0) {
+            Util.copyAll(source, destination);
+        } else {
+            Util.copyAllInParallel(source, destination, parallelism, size -> {
+            });
+        }
+    }
+}
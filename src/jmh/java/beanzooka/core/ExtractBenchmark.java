@@ -0,0 +1,74 @@
+package beanzooka.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming extractor with the zip file system on synthetic NBMs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ExtractBenchmark {
+
+    @Param({"100", "5000"})
+    public int entries;
+
+    @Param({"stream", "fileSystem"})
+    public String extractor;
+
+    private Path nbm;
+    private Plugin plugin;
+    private Path folder;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        nbm = Benchmarks.createNbm(Files.createTempFile("bench", ".nbm"), entries, 4096);
+        plugin = Plugin.ofNbm(nbm.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        Files.delete(nbm);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        folder = Files.createTempDirectory("bench-userdir");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws IOException {
+        Benchmarks.deleteTree(folder);
+    }
+
+    @Benchmark
+    public void extract() throws IOException {
+        if (extractor.equals("stream")) {
+            plugin.extract(folder.toFile(), name -> true, size -> {
+            });
+        } else {
+            plugin.extractWithFileSystem(folder.toFile(), name -> true, size -> {
+            });
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package beanzooka.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the resource finders on synthetic search results where only half of the hits are valid resources.
+ * The search engine itself is not measured and the file system scan is disabled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-D" + FileSystemScanner.ROOTS_PROPERTY + "=")
+@State(Scope.Thread)
+public class ResourceFinderBenchmark {
+
+    @Param({"100", "10000"})
+    public int hits;
+
+    private Function<String, File[]> engine;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        File[] javaw = IntStream.range(0, hits)
+                .mapToObj(i -> new File("/opt/jdk" + i + (i % 2 == 0 ? "/bin/javaw" : "/lib/javaw")))
+                .toArray(File[]::new);
+        File[] runtimes = IntStream.range(0, hits)
+                .mapToObj(i -> new File("/opt/app" + i + (i % 2 == 0 ? "/bin/app64.exe" : "/lib/app64.exe")))
+                .toArray(File[]::new);
+        File[] nbms = IntStream.range(0, hits)
+                .mapToObj(i -> new File("/opt/plugins/plugin" + i + (i % 2 == 0 ? ".nbm" : ".jar")))
+                .toArray(File[]::new);
+        engine = query -> {
+            switch (query) {
+                case "javaw":
+                    return javaw;
+                case "64.exe":
+                    return runtimes;
+                case ".nbm":
+                    return nbms;
+                default:
+                    return new File[0];
+            }
+        };
+    }
+
+    @Benchmark
+    public List<Jdk> findJdks() {
+        return Jdk.findJdks(engine);
+    }
+
+    @Benchmark
+    public List<App> findApps() {
+        return App.findApps(engine);
+    }
+
+    @Benchmark
+    public List<Plugin> findPlugins() {
+        return Plugin.findPlugins(engine);
+    }
+}
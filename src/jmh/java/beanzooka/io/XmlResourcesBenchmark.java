@@ -0,0 +1,79 @@
+package beanzooka.io;
+
+import beanzooka.core.App;
+import beanzooka.core.Jdk;
+import beanzooka.core.Plugin;
+import beanzooka.core.Resources;
+import beanzooka.core.UserDir;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing and formatting of resource files, from a typical one to a large shared one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class XmlResourcesBenchmark {
+
+    // number of items of each kind
+    @Param({"10", "1000"})
+    public int items;
+
+    private Resources resources;
+    private byte[] xml;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        Resources.Builder builder = Resources.builder();
+        for (int i = 0; i < items; i++) {
+            File root = new File("/opt/bench/item" + i);
+            builder.jdk(Jdk.builder()
+                    .label("jdk" + i)
+                    .javaHome(new File(root, "jdk"))
+                    .options("-J-Xmx2g -J-Dsome.property=" + i)
+                    .clusters(Arrays.asList(new File(root, "cluster1"), new File(root, "cluster2")))
+                    .build());
+            builder.app(App.builder().label("app" + i).file(new File(root, "bin/app64.exe")).build());
+            builder.userDir(UserDir.builder().label("userdir" + i).folder(new File(root, "userdir")).clone(i % 2 == 0).build());
+            builder.plugin(Plugin.ofNbm(new File(root, "plugin" + i + ".nbm")));
+            builder.selectedPluginIndex(i);
+        }
+        resources = builder.build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XmlResources.FORMATTER.formatStream(resources, output);
+        xml = output.toByteArray();
+    }
+
+    @Benchmark
+    public Resources parse() throws IOException {
+        return XmlResources.PARSER.parseStream(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public int format() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(xml.length);
+        XmlResources.FORMATTER.formatStream(resources, output);
+        return output.size();
+    }
+}
@@ -0,0 +1,72 @@
+package internal.swing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the row mapping of the diff bar on long lists with a few edits,
+ * since it runs on the EDT at each repaint of a modified table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class DiffBarOverlayBenchmark {
+
+    @Param({"100", "1000", "3000"})
+    public int size;
+
+    // percentage of rows removed, inserted or replaced
+    @Param({"5"})
+    public int editRate;
+
+    private List<String> original;
+    private List<String> current;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        Random random = new Random(0);
+        original = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            original.add("row" + i);
+        }
+        current = new ArrayList<>(original);
+        int edits = Math.max(1, size * editRate / 100);
+        for (int i = 0; i < edits; i++) {
+            int index = random.nextInt(current.size());
+            switch (random.nextInt(3)) {
+                case 0:
+                    current.remove(index);
+                    break;
+                case 1:
+                    current.add(index, "added" + i);
+                    break;
+                default:
+                    current.set(index, "replaced" + i);
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] computeMapping() {
+        return DiffBarOverlay.computeMapping(original, current);
+    }
+}
@@ -16,25 +16,23 @@
  */
 package beanzooka;
 
-import beanzooka.swing.MainPanel;
-import com.formdev.flatlaf.FlatLightLaf;
-import ec.util.various.swing.BasicSwingLauncher;
+import beanzooka.cli.HeadlessLauncher;
+import beanzooka.core.TempDirs;
+import beanzooka.swing.SwingLauncher;
 import nbbrd.io.sys.SystemProperties;
 
-import javax.swing.*;
-import java.awt.*;
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.List;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Handler;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
+ * Entry point of the application.
+ * It must not reference AWT classes since the headless mode is used on machines without display.
+ *
  * @author Philippe Charles
  */
 @lombok.experimental.UtilityClass
@@ -46,33 +44,16 @@ public class Beanzooka {
             return;
         }
 
-        File resources = args.length == 1 ? Paths.get(args[0]).toFile() : null;
+        TempDirs.DEFAULT.reapInBackground(TempDirs.getDefaultRoot());
 
-        disableDefaultConsoleLogger();
-        FlatLightLaf.setup();
-
-        new BasicSwingLauncher()
-                .lookAndFeel(FlatLightLaf.class.getName())
-                .content(() -> createContent(resources))
-                .title(About.getName() + " " + About.getVersion())
-                .icons(Beanzooka::getIcons)
-                .size(600, 400)
-                .launch();
-    }
+        if (args.length > 0 && args[0].equals(HeadlessLauncher.OPTION)) {
+            System.exit(HeadlessLauncher.run(Arrays.copyOfRange(args, 1, args.length), System.out, System.err));
+        }
 
-    private Component createContent(File file) {
-        MainPanel result = new MainPanel();
-        result.reload(file);
-        return result;
-    }
+        File resources = args.length == 1 ? Paths.get(args[0]).toFile() : null;
 
-    private List<? extends Image> getIcons() {
-        return IntStream.of(256, 128, 64, 48, 32, 16)
-                .mapToObj(size -> "beanzooka_redux_" + size + ".png")
-                .map(Beanzooka.class::getResource)
-                .map(ImageIcon::new)
-                .map(ImageIcon::getImage)
-                .collect(Collectors.toList());
+        disableDefaultConsoleLogger();
+        SwingLauncher.launch(resources);
     }
 
     private void disableDefaultConsoleLogger() {
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.cli;
+
+import beanzooka.core.Configuration;
+import beanzooka.core.Plugin;
+import beanzooka.core.StartupBenchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the results of startup benchmarks as JSON if the file name ends with {@code .json} or as CSV otherwise.
+ * The CSV file has one row per configuration while the JSON file also contains the individual runs.
+ */
+@lombok.experimental.UtilityClass
+class BenchmarkReport {
+
+    private static final String[] CSV_HEADER = {
+            "app", "jdk", "plugins", "fingerprint", "runs", "failed",
+            "init_min", "init_median", "init_p95",
+            "startup_min", "startup_median", "startup_p95"
+    };
+
+    void write(Path file, Map<Configuration, StartupBenchmark.Result> results) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                writeJson(writer, results);
+            } else {
+                writeCsv(writer, results);
+            }
+        }
+    }
+
+    private void writeJson(Writer writer, Map<Configuration, StartupBenchmark.Result> results) throws IOException {
+        List<Map<String, Object>> list = new ArrayList<>();
+        results.forEach((configuration, result) -> {
+            Map<String, Object> item = toFields(configuration);
+            item.put("failed", result.getFailedCount());
+            item.put("init", toFields(result.getInitStats()));
+            item.put("startup", toFields(result.getStartupStats()));
+            item.put("runs", result.getRuns().stream().map(BenchmarkReport::toFields).collect(Collectors.toList()));
+            list.add(item);
+        });
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("results", list);
+        writer.write(JsonLines.toJson(root));
+        writer.write(System.lineSeparator());
+    }
+
+    private void writeCsv(Writer writer, Map<Configuration, StartupBenchmark.Result> results) throws IOException {
+        writeCsvRow(writer, CSV_HEADER);
+        for (Map.Entry<Configuration, StartupBenchmark.Result> entry : results.entrySet()) {
+            Map<String, Object> configuration = toFields(entry.getKey());
+            StartupBenchmark.Result result = entry.getValue();
+            StartupBenchmark.Stats init = result.getInitStats();
+            StartupBenchmark.Stats startup = result.getStartupStats();
+            writeCsvRow(writer, new Object[]{
+                    configuration.get("app"), configuration.get("jdk"), configuration.get("plugins"), configuration.get("fingerprint"),
+                    init.getCount(), result.getFailedCount(),
+                    init.getMin(), init.getMedian(), init.getP95(),
+                    startup.getMin(), startup.getMedian(), startup.getP95()
+            });
+        }
+    }
+
+    private void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(toCsvValue(String.valueOf(values[i])));
+        }
+        writer.write(System.lineSeparator());
+    }
+
+    String toCsvValue(String text) {
+        return text.indexOf(',') != -1 || text.indexOf('"') != -1 || text.indexOf('\n') != -1 || text.indexOf('\r') != -1
+                ? '"' + text.replace("\"", "\"\"") + '"'
+                : text;
+    }
+
+    private Map<String, Object> toFields(Configuration configuration) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("app", configuration.getApp().getLabel());
+        result.put("jdk", configuration.getJdk().getLabel());
+        result.put("plugins", configuration.getPlugins().stream().map(Plugin::getLabel).collect(Collectors.joining(",")));
+        result.put("fingerprint", configuration.getFingerprint().getShortValue());
+        return result;
+    }
+
+    Map<String, Object> toFields(StartupBenchmark.Stats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", stats.getCount());
+        result.put("min", stats.getMin());
+        result.put("median", stats.getMedian());
+        result.put("p95", stats.getP95());
+        return result;
+    }
+
+    private Map<String, Object> toFields(StartupBenchmark.Run run) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", run.getIndex());
+        result.put("warmup", run.isWarmup());
+        result.put("initMillis", run.getInitMillis());
+        result.put("startupMillis", run.isSuccess() ? run.getStartupMillis() : null);
+        result.put("error", run.getError());
+        return result;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.cli;
+
+import beanzooka.core.App;
+import beanzooka.core.Configuration;
+import beanzooka.core.FlightRecording;
+import beanzooka.core.Jdk;
+import beanzooka.core.LaunchListener;
+import beanzooka.core.LaunchMatrix;
+import beanzooka.core.LaunchQueue;
+import beanzooka.core.Plugin;
+import beanzooka.core.Resources;
+import beanzooka.core.RingBuffer;
+import beanzooka.core.SessionEngine;
+import beanzooka.core.StartupBenchmark;
+import beanzooka.core.TempDirs;
+import beanzooka.core.UserDir;
+import beanzooka.io.XmlResources;
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Launches sessions without user interface, for example on continuous integration agents.
+ * Progress is written as JSON lines on the standard output and the exit status aggregates all the sessions:
+ * {@value #EXIT_SUCCESS} if all of them succeeded, {@value #EXIT_FAILURE} if one of them failed
+ * and {@value #EXIT_USAGE} if the arguments or the resources are invalid.
+ * This class must not depend on AWT.
+ */
+@lombok.experimental.UtilityClass
+public class HeadlessLauncher {
+
+    public static final String OPTION = "--cli";
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final int TAIL_CAPACITY = 4 * 1024;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: beanzooka " + OPTION + " <resources.xml> [options]",
+            "  --app <label|index>              app to launch, repeatable (default: selection)",
+            "  --jdk <label|index>              JDK to use, repeatable (default: selection)",
+            "  --userdir <label|index|temp>     user dir to use (default: selection)",
+            "  --plugin <label|index>           plugin to install, repeatable (default: selection)",
+            "  --no-plugins                     install no plugin",
+            "  --shared-plugins                 reference plugins as shared clusters",
+            "  --jfr                            record sessions with Java Flight Recorder and summarize the recordings",
+            "  --count <n>                      sessions per configuration (default: 1)",
+            "  --parallel <n>                   maximum number of concurrent sessions (default: " + LaunchQueue.getDefaultConcurrency() + ")",
+            "  --init-only                      prepare the user dirs without launching the apps and keep them",
+            "  --benchmark <n>                  measure the startup time of each configuration over n sequential runs",
+            "  --warmups <n>                    runs done before the measured ones (default: 0)",
+            "  --startup-pattern <regex>        log line that marks the end of the startup (default: " + StartupBenchmark.DEFAULT_STARTUP_PATTERN + ")",
+            "  --startup-timeout <seconds>      maximum startup time of a run (default: 300)",
+            "  --output <file>                  write the benchmark results as CSV, or as JSON if the file ends with .json",
+            "  --help                           print this help");
+
+    public int run(@NonNull String[] args, @NonNull PrintStream out, @NonNull PrintStream err) {
+        Options options;
+        List<Configuration> configurations;
+        try {
+            options = Options.parse(args);
+            if (options.isHelp()) {
+                out.println(USAGE);
+                return EXIT_SUCCESS;
+            }
+            configurations = resolve(XmlResources.read(options.getResources()), options);
+        } catch (IllegalArgumentException ex) {
+            err.println(ex.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IOException ex) {
+            err.println("Failed to read resources: " + ex.getMessage());
+            return EXIT_USAGE;
+        }
+        JsonLines json = new JsonLines(out);
+        return options.getBenchmark() > 0
+                ? benchmark(configurations, options, json, err)
+                : launch(configurations, options, json);
+    }
+
+    List<Configuration> resolve(Resources resources, Options options) {
+        LaunchMatrix.Builder result = LaunchMatrix
+                .builder()
+                .apps(resolveAll("app", resources.getApps(), App::getLabel, options.getApps(), resources.getSelectedAppIndex()))
+                .jdks(resolveAll("JDK", resources.getJdks(), Jdk::getLabel, options.getJdks(), resources.getSelectedJdkIndex()))
+                .userDir(resolveUserDir(resources, options.getUserDir()))
+                .tempBaseDir(resources.getTempBaseDir())
+                .sharedPlugins(options.isSharedPlugins() || resources.isSharedPluginsSelected())
+                .flightRecording(options.isFlightRecording() || resources.isFlightRecordingSelected());
+        result.pluginSet(options.isNoPlugins() ? new ArrayList<>() : resolvePlugins(resources, options.getPlugins()));
+        List<Configuration> cells = result.build().getConfigurations();
+        List<Configuration> list = new ArrayList<>();
+        for (Configuration cell : cells) {
+            for (int i = 0; i < options.getCount(); i++) {
+                list.add(cell);
+            }
+        }
+        return list;
+    }
+
+    private <T> List<T> resolveAll(String kind, List<T> list, Function<T, String> toLabel, List<String> refs, @Nullable Integer selectedIndex) {
+        if (refs.isEmpty()) {
+            int index = selectedIndex != null ? selectedIndex : 0;
+            if (index >= list.size()) {
+                throw new IllegalArgumentException("No " + kind + " available");
+            }
+            List<T> result = new ArrayList<>();
+            result.add(list.get(index));
+            return result;
+        }
+        return refs.stream().map(ref -> resolveOne(kind, list, toLabel, ref)).collect(Collectors.toList());
+    }
+
+    private <T> T resolveOne(String kind, List<T> list, Function<T, String> toLabel, String ref) {
+        for (T item : list) {
+            if (ref.equals(toLabel.apply(item))) {
+                return item;
+            }
+        }
+        try {
+            int index = Integer.parseInt(ref);
+            if (index >= 0 && index < list.size()) {
+                return list.get(index);
+            }
+        } catch (NumberFormatException ex) {
+            // not an index
+        }
+        throw new IllegalArgumentException("Unknown " + kind + " '" + ref + "'");
+    }
+
+    private Optional<UserDir> resolveUserDir(Resources resources, @Nullable String ref) {
+        if (ref == null) {
+            return resources.isTempUserDirSelected() || resources.getSelectedUserDirIndex() == null || resources.getSelectedUserDirIndex() >= resources.getUserDirs().size()
+                    ? Optional.empty()
+                    : Optional.of(resources.getUserDirs().get(resources.getSelectedUserDirIndex()));
+        }
+        return ref.equals("temp") ? Optional.empty() : Optional.of(resolveOne("user dir", resources.getUserDirs(), UserDir::getLabel, ref));
+    }
+
+    private List<Plugin> resolvePlugins(Resources resources, List<String> refs) {
+        if (refs.isEmpty()) {
+            return resources.getSelectedPluginIndices()
+                    .stream()
+                    .filter(index -> index < resources.getPlugins().size())
+                    .map(resources.getPlugins()::get)
+                    .collect(Collectors.toList());
+        }
+        return refs.stream().map(ref -> resolveOne("plugin", resources.getPlugins(), Plugin::getLabel, ref)).collect(Collectors.toList());
+    }
+
+    private int launch(List<Configuration> configurations, Options options, JsonLines json) {
+        LaunchQueue queue = new LaunchQueue(options.getParallel(), LaunchQueue.Admission.getDefault());
+        List<CompletableFuture<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            Configuration configuration = configurations.get(i);
+            CompletableFuture<Integer> status = new CompletableFuture<>();
+            int session = i;
+            queue.submit(() -> runSession(session, configuration, options.isInitOnly(), json).thenAccept(status::complete));
+            statuses.add(status);
+        }
+        int failed = 0;
+        for (CompletableFuture<Integer> status : statuses) {
+            if (status.join() != EXIT_SUCCESS) {
+                failed++;
+            }
+        }
+        json.event("summary")
+                .put("sessions", configurations.size())
+                .put("failed", failed)
+                .emit();
+        return failed == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+    }
+
+    private int benchmark(List<Configuration> configurations, Options options, JsonLines json, PrintStream err) {
+        Map<Configuration, StartupBenchmark.Result> results = new LinkedHashMap<>();
+        int failed = 0;
+        // repeated configurations are measured once since runs are already repeated
+        for (Configuration configuration : new LinkedHashSet<>(configurations)) {
+            int session = results.size();
+            StartupBenchmark benchmark = StartupBenchmark
+                    .builder()
+                    .configuration(configuration)
+                    .runs(options.getBenchmark())
+                    .warmups(options.getWarmups())
+                    .startupPattern(Pattern.compile(options.getStartupPattern()))
+                    .timeout(Duration.ofSeconds(options.getStartupTimeout()))
+                    .build();
+            StartupBenchmark.Result result;
+            try {
+                result = benchmark.run(run -> newEvent(json, "run", session, configuration)
+                        .put("run", run.getIndex())
+                        .put("warmup", run.isWarmup())
+                        .put("initMillis", run.getInitMillis())
+                        .put("startupMillis", run.isSuccess() ? run.getStartupMillis() : null)
+                        .put("error", run.getError())
+                        .emit());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return EXIT_FAILURE;
+            }
+            newEvent(json, "benchmark", session, configuration)
+                    .put("failed", result.getFailedCount())
+                    .put("init", BenchmarkReport.toFields(result.getInitStats()))
+                    .put("startup", BenchmarkReport.toFields(result.getStartupStats()))
+                    .emit();
+            results.put(configuration, result);
+            failed += result.getFailedCount();
+        }
+        if (options.getOutput() != null) {
+            try {
+                BenchmarkReport.write(options.getOutput(), results);
+            } catch (IOException ex) {
+                err.println("Failed to write results: " + ex.getMessage());
+                return EXIT_FAILURE;
+            }
+        }
+        return failed == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+    }
+
+    private CompletableFuture<Integer> runSession(int session, Configuration configuration, boolean initOnly, JsonLines json) {
+        long start = System.nanoTime();
+        return SessionEngine.DEFAULT
+                .prepare(configuration, LaunchListener.NO_OP)
+                .thenCompose(workingDir -> {
+                    long launch = System.nanoTime();
+                    if (initOnly) {
+                        // the prepared dir is the result and must survive the exit of this process
+                        try {
+                            TempDirs.DEFAULT.keep(workingDir);
+                        } catch (IOException ex) {
+                            throw new CompletionException(ex);
+                        }
+                    }
+                    newEvent(json, "prepared", session, configuration)
+                            .put("workingDir", workingDir.toString())
+                            .put("initMillis", toMillis(launch - start))
+                            .emit();
+                    if (initOnly) {
+                        return CompletableFuture.completedFuture(EXIT_SUCCESS);
+                    }
+                    return launchSession(session, configuration, workingDir, json);
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    newEvent(json, "failed", session, configuration)
+                            .put("error", cause.toString())
+                            .emit();
+                    return EXIT_FAILURE;
+                });
+    }
+
+    private CompletableFuture<Integer> launchSession(int session, Configuration configuration, File workingDir, JsonLines json) {
+        RingBuffer output = new RingBuffer(TAIL_CAPACITY);
+        RingBuffer error = new RingBuffer(TAIL_CAPACITY);
+        long start = System.nanoTime();
+        CompletableFuture<Integer> exit;
+        try {
+            exit = SessionEngine.DEFAULT.launch(configuration, workingDir, output, error);
+        } catch (IOException ex) {
+            throw new CompletionException(ex);
+        }
+        newEvent(json, "started", session, configuration).emit();
+        return exit.thenApply(exitValue -> {
+            JsonLines.Event event = newEvent(json, "exited", session, configuration)
+                    .put("exitValue", exitValue)
+                    .put("runMillis", toMillis(System.nanoTime() - start));
+            if (exitValue != 0) {
+                event.put("errorTail", error.toString(Charset.defaultCharset()));
+            }
+            if (configuration.isFlightRecording()) {
+                putRecording(event, FlightRecording.resolveRecordingFile(workingDir));
+            }
+            event.emit();
+            return exitValue == 0 ? EXIT_SUCCESS : EXIT_FAILURE;
+        });
+    }
+
+    private void putRecording(JsonLines.Event event, File file) {
+        try {
+            FlightRecording.Summary summary = FlightRecording.summarize(file.toPath());
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("file", file.toString());
+            fields.put("durationMillis", summary.getDuration().toMillis());
+            fields.put("executionSamples", summary.getExecutionSamples());
+            fields.put("hotMethods", summary.getHotMethods().stream().map(FlightRecording.HotMethod::getName).collect(Collectors.toList()));
+            fields.put("gcCount", summary.getGcCount());
+            fields.put("gcPauseMillis", summary.getGcPauseTotal().toMillis());
+            fields.put("gcMaxPauseMillis", summary.getGcPauseMax().toMillis());
+            fields.put("allocatedBytes", summary.getAllocatedBytes());
+            event.put("recording", fields);
+        } catch (IOException ex) {
+            event.put("recordingError", ex.toString());
+        }
+    }
+
+    private JsonLines.Event newEvent(JsonLines json, String name, int session, Configuration configuration) {
+        return json.event(name)
+                .put("session", session)
+                .put("app", configuration.getApp().getLabel())
+                .put("jdk", configuration.getJdk().getLabel())
+                .put("plugins", configuration.getPlugins().stream().map(Plugin::getLabel).collect(Collectors.joining(",")))
+                .put("fingerprint", configuration.getFingerprint().getShortValue());
+    }
+
+    private long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
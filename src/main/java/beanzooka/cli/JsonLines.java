@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.cli;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes events as JSON objects, one per line.
+ * Values are strings, numbers, booleans, null, maps or iterables. Methods are thread-safe.
+ */
+@lombok.RequiredArgsConstructor
+final class JsonLines {
+
+    private final PrintStream out;
+
+    Event event(String name) {
+        return new Event().put("event", name);
+    }
+
+    final class Event {
+
+        private final Map<String, Object> fields = new LinkedHashMap<>();
+
+        Event put(String key, Object value) {
+            fields.put(key, value);
+            return this;
+        }
+
+        void emit() {
+            String line = toJson(fields);
+            synchronized (out) {
+                out.println(line);
+                out.flush();
+            }
+        }
+    }
+
+    static String toJson(Map<String, ?> fields) {
+        StringBuilder result = new StringBuilder();
+        appendObject(result, fields);
+        return result.toString();
+    }
+
+    private static void appendObject(StringBuilder result, Map<?, ?> fields) {
+        result.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> field : fields.entrySet()) {
+            if (!first) {
+                result.append(',');
+            }
+            first = false;
+            appendString(result, field.getKey().toString());
+            result.append(':');
+            appendValue(result, field.getValue());
+        }
+        result.append('}');
+    }
+
+    private static void appendArray(StringBuilder result, Iterable<?> values) {
+        result.append('[');
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                result.append(',');
+            }
+            first = false;
+            appendValue(result, value);
+        }
+        result.append(']');
+    }
+
+    private static void appendValue(StringBuilder result, Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            result.append(value);
+        } else if (value instanceof Map) {
+            appendObject(result, (Map<?, ?>) value);
+        } else if (value instanceof Iterable) {
+            appendArray(result, (Iterable<?>) value);
+        } else {
+            appendString(result, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder result, String text) {
+        result.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+                case '\\':
+                    result.append("\\\\");
+                    break;
+                case '\n':
+                    result.append("\\n");
+                    break;
+                case '\r':
+                    result.append("\\r");
+                    break;
+                case '\t':
+                    result.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        result.append("\\u").append(String.format(Locale.ROOT, "%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        result.append('"');
+    }
+}
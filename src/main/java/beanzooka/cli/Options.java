@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.cli;
+
+import beanzooka.core.LaunchQueue;
+import beanzooka.core.StartupBenchmark;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Arguments of the headless launcher.
+ */
+@lombok.Value
+@lombok.Builder
+class Options {
+
+    @Nullable
+    Path resources;
+
+    @lombok.Singular
+    List<String> apps;
+
+    @lombok.Singular
+    List<String> jdks;
+
+    @Nullable
+    String userDir;
+
+    @lombok.Singular
+    List<String> plugins;
+
+    boolean noPlugins;
+
+    boolean sharedPlugins;
+
+    boolean flightRecording;
+
+    @lombok.Builder.Default
+    int count = 1;
+
+    @lombok.Builder.Default
+    int parallel = LaunchQueue.getDefaultConcurrency();
+
+    boolean initOnly;
+
+    /**
+     * Number of measured runs per configuration or 0 if not benchmarking.
+     */
+    int benchmark;
+
+    int warmups;
+
+    @lombok.Builder.Default
+    String startupPattern = StartupBenchmark.DEFAULT_STARTUP_PATTERN;
+
+    @lombok.Builder.Default
+    int startupTimeout = 300;
+
+    @Nullable
+    Path output;
+
+    boolean help;
+
+    static Options parse(String[] args) throws IllegalArgumentException {
+        Builder result = builder();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--app":
+                    result.app(getValue(args, ++i, arg));
+                    break;
+                case "--jdk":
+                    result.jdk(getValue(args, ++i, arg));
+                    break;
+                case "--userdir":
+                    result.userDir(getValue(args, ++i, arg));
+                    break;
+                case "--plugin":
+                    result.plugin(getValue(args, ++i, arg));
+                    break;
+                case "--no-plugins":
+                    result.noPlugins(true);
+                    break;
+                case "--shared-plugins":
+                    result.sharedPlugins(true);
+                    break;
+                case "--jfr":
+                    result.flightRecording(true);
+                    break;
+                case "--count":
+                    result.count(getPositiveInt(args, ++i, arg));
+                    break;
+                case "--parallel":
+                    result.parallel(getPositiveInt(args, ++i, arg));
+                    break;
+                case "--init-only":
+                    result.initOnly(true);
+                    break;
+                case "--benchmark":
+                    result.benchmark(getPositiveInt(args, ++i, arg));
+                    break;
+                case "--warmups":
+                    result.warmups(getNonNegativeInt(args, ++i, arg));
+                    break;
+                case "--startup-pattern":
+                    result.startupPattern(getPattern(args, ++i, arg));
+                    break;
+                case "--startup-timeout":
+                    result.startupTimeout(getPositiveInt(args, ++i, arg));
+                    break;
+                case "--output":
+                    result.output(Paths.get(getValue(args, ++i, arg)));
+                    break;
+                case "--help":
+                    result.help(true);
+                    break;
+                default:
+                    if (arg.startsWith("--") || result.resources != null) {
+                        throw new IllegalArgumentException("Unexpected argument '" + arg + "'");
+                    }
+                    result.resources(Paths.get(arg));
+                    break;
+            }
+        }
+        Options options = result.build();
+        if (!options.isHelp() && options.getResources() == null) {
+            throw new IllegalArgumentException("Missing resources file");
+        }
+        if (options.getBenchmark() > 0 && options.isInitOnly()) {
+            throw new IllegalArgumentException("Options --benchmark and --init-only are exclusive");
+        }
+        return options;
+    }
+
+    private static String getValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + option);
+        }
+        return args[index];
+    }
+
+    private static int getPositiveInt(String[] args, int index, String option) {
+        return getInt(args, index, option, 1);
+    }
+
+    private static int getNonNegativeInt(String[] args, int index, String option) {
+        return getInt(args, index, option, 0);
+    }
+
+    private static int getInt(String[] args, int index, String option, int min) {
+        String value = getValue(args, index, option);
+        try {
+            int result = Integer.parseInt(value);
+            if (result >= min) {
+                return result;
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid value of " + option + ": '" + value + "'");
+    }
+
+    private static String getPattern(String[] args, int index, String option) {
+        String value = getValue(args, index, option);
+        try {
+            Pattern.compile(value);
+            return value;
+        } catch (PatternSyntaxException ex) {
+            throw new IllegalArgumentException("Invalid value of " + option + ": " + ex.getDescription());
+        }
+    }
+}
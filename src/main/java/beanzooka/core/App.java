@@ -21,8 +21,13 @@ import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
 import nbbrd.design.VisibleForTesting;
 import nbbrd.io.sys.OS;
+import org.jspecify.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.function.Consumer;
@@ -65,7 +70,13 @@ public class App {
     }
 
     public static List<App> findApps(Function<String, File[]> engine) {
-        return ResourceFinder.findResources(List.of(new DesktopSearch(engine)));
+        return ParallelResourceFinder
+                .<App>builder()
+                .finder(new DesktopSearch(engine))
+                .finder(new FileSystemSearch(FileSystemScanner.DEFAULT))
+                .key(App::getFile)
+                .build()
+                .findResources();
     }
 
     @VisibleForTesting
@@ -83,6 +94,54 @@ public class App {
                 .build();
     }
 
+    @VisibleForTesting
+    @lombok.RequiredArgsConstructor
+    static final class FileSystemSearch implements ResourceFinder<App>, FileSystemScanner.Recognizer<App> {
+
+        @lombok.NonNull
+        private final FileSystemScanner scanner;
+
+        @Override
+        public void addResourcesTo(@NonNull Consumer<? super App> consumer) {
+            scanner.scan(this, consumer);
+        }
+
+        /**
+         * Recognizes the home of a NetBeans application: a platform cluster and a launcher named after
+         * one of the config files of its etc folder.
+         */
+        @Override
+        public @Nullable App recognizeDirectory(@NonNull Path dir) {
+            Path etc = dir.resolve("etc");
+            if (!Files.isDirectory(etc) || !hasPlatformCluster(dir)) {
+                return null;
+            }
+            try (DirectoryStream<Path> configs = Files.newDirectoryStream(etc, "*.conf")) {
+                for (Path config : configs) {
+                    String branding = config.getFileName().toString().replace(".conf", "");
+                    Path launcher = dir.resolve("bin").resolve(OS.NAME.equals(OS.Name.WINDOWS) ? branding + "64.exe" : branding);
+                    if (Files.isRegularFile(launcher)) {
+                        return ofNetBeansRuntime(launcher.toFile());
+                    }
+                }
+            } catch (IOException ignore) {
+            }
+            return null;
+        }
+
+        private static boolean hasPlatformCluster(Path dir) {
+            try (DirectoryStream<Path> clusters = Files.newDirectoryStream(dir, "platform*")) {
+                for (Path cluster : clusters) {
+                    if (Files.isRegularFile(cluster.resolve("lib").resolve("nbexec"))) {
+                        return true;
+                    }
+                }
+            } catch (IOException ignore) {
+            }
+            return false;
+        }
+    }
+
     @lombok.Builder
     private static final class NetBeansRuntimeSupport implements ResourceFinder<App> {
 
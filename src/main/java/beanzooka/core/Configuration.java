@@ -16,10 +16,23 @@
  */
 package beanzooka.core;
 
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
 /**
  *
@@ -27,31 +40,198 @@ import java.util.Optional;
  */
 @lombok.Value
 @lombok.Builder
+@lombok.extern.java.Log
 public class Configuration {
 
+    private static final int EXTRACT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // shared by all the preparations so that concurrent sessions do not multiply the threads
+    private static final ExecutorService EXTRACTOR = newExtractor();
+
+    private static ExecutorService newExtractor() {
+        ThreadPoolExecutor result = new ThreadPoolExecutor(EXTRACT_THREADS, EXTRACT_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), Util.daemonThreadFactory("beanzooka-extract"));
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
     App app;
 
     Jdk jdk;
 
     Optional<UserDir> userDir;
 
+    /**
+     * Base dir of the temporary user dir used when {@link #getUserDir()} is empty.
+     */
+    @Nullable
+    File tempBaseDir;
+
     List<Plugin> plugins;
 
+    /**
+     * Whether plugins are referenced as shared clusters instead of being extracted in the working dir.
+     */
+    boolean sharedPlugins;
+
+    /**
+     * Whether the session is recorded by Java Flight Recorder, see {@link FlightRecording}.
+     */
+    boolean flightRecording;
+
+    /**
+     * Content identity of this configuration, computed once per instance.
+     */
+    @lombok.Getter(lazy = true)
+    @lombok.EqualsAndHashCode.Exclude
+    @lombok.ToString.Exclude
+    private final Fingerprint fingerprint = Fingerprint.of(this);
+
     public File init() throws IOException {
-        File workingDir = userDir.orElse(UserDir.TEMP).createWorkingDir();
+        return init(LaunchListener.NO_OP);
+    }
+
+    public File init(@NonNull LaunchListener listener) throws IOException {
+        return init(listener, PluginCache.DEFAULT);
+    }
+
+    public File init(@NonNull LaunchListener listener, @NonNull PluginCache pluginCache) throws IOException {
+        return init(listener, pluginCache, ModuleCache.DEFAULT);
+    }
+
+    public File init(@NonNull LaunchListener listener, @NonNull PluginCache pluginCache, @NonNull ModuleCache moduleCache) throws IOException {
+        listener.onStage(LaunchListener.Stage.PREPARE_DIR);
+        File workingDir = userDir.orElseGet(() -> UserDir.TEMP.withBaseDir(tempBaseDir)).createWorkingDir(listener::onBytesCopied);
+        try {
+            prepare(workingDir, listener, pluginCache);
+
+            Util.checkInterrupted();
+            listener.onStage(LaunchListener.Stage.SEED_CACHE);
+            moduleCache.seed(this, workingDir, listener::onBytesCopied);
+
+            return workingDir;
+        } catch (IOException | RuntimeException | Error ex) {
+            // a half-built temporary dir is useless, non-temporary dirs are ignored
+            TempDirs.DEFAULT.delete(workingDir);
+            throw ex;
+        }
+    }
+
+    private void prepare(File workingDir, LaunchListener listener, PluginCache pluginCache) throws IOException {
+        if (sharedPlugins) {
+            Util.checkInterrupted();
+            listener.onStage(LaunchListener.Stage.EXTRACT_PLUGINS);
+            long start = System.nanoTime();
+            List<Callable<File>> tasks = new ArrayList<>();
+            for (Plugin plugin : plugins) {
+                tasks.add(() -> pluginCache.getCluster(plugin, workingDir, size -> listener.onEntriesExtracted(1)));
+            }
+            List<File> clusters = new ArrayList<>(jdk.getClusters());
+            clusters.addAll(Util.invokeAll(EXTRACTOR, tasks));
+            reportExtraction(listener, start);
+
+            Util.checkInterrupted();
+            listener.onStage(LaunchListener.Stage.WRITE_CONFIG);
+            getLaunchJdk(workingDir).withClusters(clusters).writeConfigFile(UserDir.resolveConfigFile(workingDir, app.getBranding()));
+            return;
+        }
 
-        jdk.writeConfigFile(UserDir.resolveConfigFile(workingDir, app.getBranding()));
+        Util.checkInterrupted();
+        listener.onStage(LaunchListener.Stage.WRITE_CONFIG);
+        getLaunchJdk(workingDir).writeConfigFile(UserDir.resolveConfigFile(workingDir, app.getBranding()));
 
+        Util.checkInterrupted();
+        listener.onStage(LaunchListener.Stage.EXTRACT_PLUGINS);
+        extractPlugins(workingDir, pluginCache, listener);
+    }
+
+    private Jdk getLaunchJdk(File workingDir) {
+        if (!flightRecording) {
+            return jdk;
+        }
+        String options = FlightRecording.getLauncherOptions(workingDir);
+        return jdk.withOptions(jdk.getOptions() != null && !jdk.getOptions().isEmpty() ? jdk.getOptions() + " " + options : options);
+    }
+
+    private void extractPlugins(File workingDir, PluginCache pluginCache, LaunchListener listener) throws IOException {
+        long start = System.nanoTime();
+
+        List<Callable<List<String>>> listings = new ArrayList<>();
         for (Plugin plugin : plugins) {
-            plugin.extract(workingDir);
+            listings.add(plugin::getEntryNames);
+        }
+        Map<String, Integer> owners = getOwners(Util.invokeAll(EXTRACTOR, listings));
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < plugins.size(); i++) {
+            Plugin plugin = plugins.get(i);
+            int index = i;
+            tasks.add(() -> {
+                // plugins are already extracted in parallel, nesting another pool would multiply the threads
+                pluginCache.extract(plugin, workingDir, name -> owners.getOrDefault(name, index) == index, 1, size -> listener.onEntriesExtracted(1));
+                return null;
+            });
+        }
+        Util.invokeAll(EXTRACTOR, tasks);
+
+        reportExtraction(listener, start);
+    }
+
+    // overlapping entries belong to the last plugin, as if plugins were extracted one after another
+    private Map<String, Integer> getOwners(List<List<String>> entryNames) {
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < entryNames.size(); i++) {
+            for (String name : entryNames.get(i)) {
+                Integer previous = result.put(name, i);
+                if (previous != null) {
+                    log.log(Level.FINE, "Entry ''{0}'' of ''{1}'' overrides ''{2}''", new Object[]{name, plugins.get(i).getLabel(), plugins.get(previous).getLabel()});
+                }
+            }
         }
+        return result;
+    }
 
-        return workingDir;
+    private void reportExtraction(LaunchListener listener, long startNanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (!plugins.isEmpty()) {
+            log.log(Level.FINE, "Extracted {0} plugin(s) in {1} ms", new Object[]{plugins.size(), millis});
+        }
+        listener.onPluginsExtracted(plugins.size(), millis);
     }
 
     public void launch(File workingDir) throws Exception {
-        new ProcessBuilder(app.getFile().toString(), "--userdir", workingDir.toString())
-                .start()
-                .waitFor();
+        start(workingDir).waitFor();
+    }
+
+    public Process start(File workingDir) throws IOException {
+        return start(workingDir, PluginCache.DEFAULT);
+    }
+
+    /**
+     * Starts a session in a working dir prepared by {@link #init(LaunchListener, PluginCache, ModuleCache)}.
+     *
+     * @param workingDir  a non-null working dir
+     * @param pluginCache the cache used by the initialization, that must keep the shared clusters of the session
+     * @return a non-null process
+     * @throws IOException if the process cannot be started
+     */
+    public Process start(@NonNull File workingDir, @NonNull PluginCache pluginCache) throws IOException {
+        if (flightRecording) {
+            // a recording left by a previous session must not be mistaken for the new one
+            File recording = FlightRecording.resolveRecordingFile(workingDir);
+            Files.deleteIfExists(recording.toPath());
+            Files.createDirectories(recording.toPath().getParent());
+        }
+        Process result = newProcessBuilder(workingDir).start();
+        // the working dir must not be reaped while the session is running, even if this process crashes
+        TempDirs.DEFAULT.bindSession(workingDir, result.toHandle());
+        if (sharedPlugins) {
+            // the clusters must outlive this process as long as the session is running
+            pluginCache.bindSession(workingDir, result.toHandle());
+        }
+        return result;
+    }
+
+    public ProcessBuilder newProcessBuilder(File workingDir) {
+        return new ProcessBuilder(app.getFile().toString(), "--userdir", workingDir.toString());
     }
 }
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import nbbrd.io.sys.OS;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Walks some roots of the local file system on a fork/join pool to discover resources without a desktop search engine.
+ * The walk is limited in depth, does not follow links and skips the folders whose name matches a glob pattern.
+ * Recognized folders, such as a JDK home, are not walked any further.
+ */
+@lombok.Builder
+@lombok.extern.java.Log
+public final class FileSystemScanner {
+
+    public static final String ROOTS_PROPERTY = "beanzooka.scan.roots";
+    public static final String MAX_DEPTH_PROPERTY = "beanzooka.scan.maxDepth";
+    public static final String SKIP_PROPERTY = "beanzooka.scan.skip";
+
+    public static final FileSystemScanner DEFAULT = FileSystemScanner
+            .builder()
+            .roots(getDefaultRoots())
+            .maxDepth(Integer.getInteger(MAX_DEPTH_PROPERTY, 4))
+            .skips(splitProperty(SKIP_PROPERTY, ",", ".*,node_modules,target,build,proc,sys,dev"))
+            .build();
+
+    private static List<Path> getDefaultRoots() {
+        String defaultRoots = OS.NAME.equals(OS.Name.LINUX)
+                ? Stream.of("/usr/lib/jvm", "/usr/local", "/opt",
+                        Paths.get(System.getProperty("user.home"), ".sdkman", "candidates").toString(),
+                        System.getProperty("user.home"))
+                .collect(Collectors.joining(File.pathSeparator))
+                : "";
+        return splitProperty(ROOTS_PROPERTY, File.pathSeparator, defaultRoots)
+                .stream()
+                .map(Paths::get)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> splitProperty(String key, String separator, String defaultValue) {
+        return Stream.of(System.getProperty(key, defaultValue).split(separator, -1))
+                .map(String::trim)
+                .filter(o -> !o.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Identifies resources while walking the file system.
+     *
+     * @param <R> the type of the resources
+     */
+    public interface Recognizer<R> {
+
+        /**
+         * Recognizes a folder, in which case its content is not walked.
+         *
+         * @param dir a non-null folder
+         * @return a resource or null if the folder must be walked
+         */
+        default @Nullable R recognizeDirectory(@NonNull Path dir) {
+            return null;
+        }
+
+        default @Nullable R recognizeFile(@NonNull Path file) {
+            return null;
+        }
+    }
+
+    @lombok.Singular
+    private final List<Path> roots;
+
+    /**
+     * Maximum depth of the walk below each root.
+     */
+    private final int maxDepth;
+
+    /**
+     * Glob patterns on the names of the folders to skip; roots are never skipped.
+     */
+    @lombok.Singular
+    private final List<String> skips;
+
+    @lombok.Builder.Default
+    private final int parallelism = ParallelCopy.getDefaultParallelism();
+
+    // shared by overlapping scans, such as the ones of an auto fill looking for apps, JDKs and plugins at once
+    private final AtomicReference<Listing> sharedListing = new AtomicReference<>();
+
+    private final AtomicInteger walkCount = new AtomicInteger();
+
+    /**
+     * Walks the roots and passes the recognized resources to a consumer.
+     * Unreadable folders are ignored.
+     * Scans that overlap share a single walk of the file system.
+     *
+     * @param recognizer a non-null recognizer
+     * @param consumer   a non-null consumer called sequentially from the walking threads
+     */
+    public <R> void scan(@NonNull Recognizer<R> recognizer, @NonNull Consumer<? super R> consumer) {
+        List<Path> existingRoots = roots.stream().filter(Files::isDirectory).collect(Collectors.toList());
+        if (existingRoots.isEmpty()) {
+            return;
+        }
+        Listing listing = acquireListing(existingRoots);
+        try {
+            if (!listing.await()) {
+                return;
+            }
+            Walk<R> walk = new Walk<>(recognizer, consumer, listing);
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                ForkJoinTask<?> task = pool.submit(walk::start);
+                try {
+                    task.get();
+                } catch (InterruptedException ex) {
+                    walk.cancelled = true;
+                    task.cancel(true);
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    log.log(Level.WARNING, "Failed to scan " + roots, ex.getCause());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        } finally {
+            releaseListing(listing);
+        }
+    }
+
+    int getWalkCount() {
+        return walkCount.get();
+    }
+
+    private Listing acquireListing(List<Path> existingRoots) {
+        synchronized (sharedListing) {
+            Listing result = sharedListing.get();
+            if (result == null || !result.isReusable(existingRoots)) {
+                result = new Listing(existingRoots);
+                walkCount.incrementAndGet();
+                sharedListing.set(result);
+            }
+            result.users++;
+            return result;
+        }
+    }
+
+    private void releaseListing(Listing listing) {
+        synchronized (sharedListing) {
+            if (--listing.users == 0) {
+                // nobody waits for it anymore, such as when all the finders timed out
+                listing.cancel();
+                sharedListing.compareAndSet(listing, null);
+            }
+        }
+    }
+
+    private List<PathMatcher> getSkipMatchers() {
+        return skips.stream()
+                .map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Content of the walked folders, listed once and then passed to the recognizers.
+     */
+    private final class Listing {
+
+        private final List<Path> startRoots;
+        private final List<PathMatcher> skipMatchers = getSkipMatchers();
+        private final Map<Path, Content> contents = new ConcurrentHashMap<>();
+        private final ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        private final ForkJoinTask<?> task;
+        private volatile boolean cancelled = false;
+        private int users = 0;
+
+        Listing(List<Path> startRoots) {
+            this.startRoots = startRoots;
+            this.task = pool.submit(() -> ForkJoinTask.invokeAll(startRoots.stream().map(root -> new ListTask(root, 0)).collect(Collectors.toList())));
+        }
+
+        boolean isReusable(List<Path> roots) {
+            return !cancelled && startRoots.equals(roots) && !task.isCompletedAbnormally();
+        }
+
+        boolean await() {
+            try {
+                task.get();
+                return !cancelled;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException ex) {
+                log.log(Level.WARNING, "Failed to scan " + roots, ex.getCause());
+                return false;
+            } catch (CancellationException ex) {
+                return false;
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            task.cancel(true);
+            pool.shutdownNow();
+        }
+
+        private boolean isSkipped(Path dir) {
+            Path name = dir.getFileName();
+            return name != null && skipMatchers.stream().anyMatch(matcher -> matcher.matches(name));
+        }
+
+        @lombok.RequiredArgsConstructor
+        private final class ListTask extends RecursiveAction {
+
+            private final Path dir;
+            private final int depth;
+
+            @Override
+            protected void compute() {
+                if (cancelled) {
+                    return;
+                }
+                List<Path> dirs = new ArrayList<>();
+                List<Path> files = new ArrayList<>();
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+                    for (Path child : children) {
+                        BasicFileAttributes attrs;
+                        try {
+                            attrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        } catch (IOException | SecurityException ex) {
+                            // deleted during the walk or not readable, siblings are still walked
+                            log.log(Level.FINE, "Cannot read " + child, ex);
+                            continue;
+                        }
+                        if (attrs.isDirectory()) {
+                            if (depth < maxDepth && !isSkipped(child)) {
+                                dirs.add(child);
+                            }
+                        } else if (attrs.isRegularFile()) {
+                            files.add(child);
+                        }
+                    }
+                } catch (IOException | SecurityException ex) {
+                    log.log(Level.FINE, "Cannot walk " + dir, ex);
+                }
+                contents.put(dir, new Content(dirs, files));
+                invokeAll(dirs.stream().map(child -> new ListTask(child, depth + 1)).collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Content {
+
+        final List<Path> dirs;
+        final List<Path> files;
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Walk<R> {
+
+        private final Recognizer<R> recognizer;
+        private final Consumer<? super R> consumer;
+        private final Listing listing;
+        private volatile boolean cancelled = false;
+
+        void start() {
+            ForkJoinTask.invokeAll(listing.startRoots.stream().map(DirectoryTask::new).collect(Collectors.toList()));
+        }
+
+        private void accept(@Nullable R resource) {
+            if (resource != null) {
+                synchronized (this) {
+                    consumer.accept(resource);
+                }
+            }
+        }
+
+        @lombok.RequiredArgsConstructor
+        private final class DirectoryTask extends RecursiveAction {
+
+            private final Path dir;
+
+            @Override
+            protected void compute() {
+                if (cancelled) {
+                    return;
+                }
+                R resource = recognizer.recognizeDirectory(dir);
+                if (resource != null) {
+                    accept(resource);
+                    return;
+                }
+                Content content = listing.contents.get(dir);
+                if (content == null) {
+                    return;
+                }
+                for (Path file : content.files) {
+                    accept(recognizer.recognizeFile(file));
+                }
+                invokeAll(content.dirs.stream().map(DirectoryTask::new).collect(Collectors.toList()));
+            }
+        }
+    }
+}
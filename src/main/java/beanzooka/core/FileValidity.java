@@ -0,0 +1,282 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+/**
+ * Caches the existence and type of files so that renderers never touch the file system.
+ * Statuses are resolved on a background pool, expire after a time-to-live and are invalidated
+ * as soon as a watched parent folder reports a change.
+ */
+@lombok.extern.java.Log
+public final class FileValidity {
+
+    public enum Status {
+        UNKNOWN, MISSING, FILE, DIRECTORY
+    }
+
+    public static final String TTL_PROPERTY = "beanzooka.validity.ttl";
+
+    public static final FileValidity DEFAULT = new FileValidity(
+            Executors.newFixedThreadPool(2, Util.daemonThreadFactory("beanzooka-validity")),
+            Duration.ofMillis(Long.getLong(TTL_PROPERTY, 10_000)),
+            System::nanoTime,
+            true);
+
+    // inotify watches are a scarce per-user resource
+    private static final int MAX_WATCHED_DIRS = 256;
+
+    // every file ever rendered by a cell or an auto-completion is requested
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> watchedDirs = new ConcurrentHashMap<>();
+    private final List<Consumer<? super File>> listeners = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final WatchService watchService;
+    private final int maxEntries;
+
+    FileValidity(Executor executor, Duration ttl, LongSupplier ticker, boolean watch) {
+        this(executor, ttl, ticker, watch, MAX_ENTRIES);
+    }
+
+    FileValidity(Executor executor, Duration ttl, LongSupplier ticker, boolean watch, int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.executor = executor;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.watchService = watch ? newWatchService() : null;
+        if (watchService != null) {
+            Thread thread = Util.daemonThreadFactory("beanzooka-validity-watch").newThread(this::pollEvents);
+            thread.start();
+        }
+    }
+
+    /**
+     * Gets the cached status of a file and schedules a check if it is unknown or expired.
+     * The previous status is kept while an expired entry is being checked again.
+     *
+     * @param file a non-null file
+     * @return a non-null status
+     */
+    public @NonNull Status getStatus(@NonNull File file) {
+        Path path;
+        try {
+            path = file.toPath().toAbsolutePath();
+        } catch (InvalidPathException ex) {
+            return Status.MISSING;
+        }
+        long now = ticker.getAsLong();
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entry = entries.computeIfAbsent(path, key -> new Entry());
+        }
+        if (entry.needsCheck(now, ttlNanos)) {
+            Entry target = entry;
+            executor.execute(() -> check(file, path, target));
+        }
+        return entry.status;
+    }
+
+    /**
+     * Registers a listener called from a background thread when a status changes.
+     *
+     * @param listener a non-null listener that receives the changed file
+     */
+    public void addChangeListener(@NonNull Consumer<? super File> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(@NonNull Consumer<? super File> listener) {
+        listeners.remove(listener);
+    }
+
+    int getEntryCount() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now, ttlNanos));
+        // still full of fresh entries: drops some of them, they are checked again if requested
+        Iterator<Path> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    void invalidate(Path path) {
+        Entry entry = entries.get(path);
+        if (entry != null && entry.expire()) {
+            executor.execute(() -> check(path.toFile(), path, entry));
+        }
+    }
+
+    private void check(File file, Path path, Entry entry) {
+        Status old = entry.status;
+        Status status;
+        do {
+            status = probe(path);
+        } while (!entry.resolve(status, ticker.getAsLong()));
+        watch(path.getParent());
+        if (old != status) {
+            fireChanged(file);
+        }
+    }
+
+    private static Status probe(Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return attrs.isDirectory() ? Status.DIRECTORY : Status.FILE;
+        } catch (NoSuchFileException ex) {
+            return Status.MISSING;
+        } catch (IOException | SecurityException ex) {
+            log.log(Level.FINE, "Cannot read attributes of " + path, ex);
+            return Status.MISSING;
+        }
+    }
+
+    private void fireChanged(File file) {
+        for (Consumer<? super File> listener : listeners) {
+            try {
+                listener.accept(file);
+            } catch (RuntimeException ex) {
+                log.log(Level.WARNING, "Failed to notify change of " + file, ex);
+            }
+        }
+    }
+
+    private void watch(Path dir) {
+        if (watchService == null || dir == null || watchedDirs.containsKey(dir) || watchedDirs.size() >= MAX_WATCHED_DIRS) {
+            return;
+        }
+        try {
+            WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirs.put(dir, key);
+        } catch (IOException | ClosedWatchServiceException | UnsupportedOperationException ex) {
+            log.log(Level.FINE, "Cannot watch " + dir, ex);
+        }
+    }
+
+    private void pollEvents() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        entries.keySet().stream().filter(path -> dir.equals(path.getParent())).forEach(this::invalidate);
+                    } else {
+                        invalidate(dir.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    watchedDirs.remove(dir);
+                    entries.keySet().stream().filter(path -> path.startsWith(dir)).forEach(this::invalidate);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // shutting down
+        }
+    }
+
+    private static WatchService newWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException ex) {
+            log.log(Level.WARNING, "File watching not available, relying on expiration only", ex);
+            return null;
+        }
+    }
+
+    private static final class Entry {
+
+        private volatile Status status = Status.UNKNOWN;
+        private long checkedAt;
+        private boolean pending;
+        private boolean dirty;
+
+        synchronized boolean needsCheck(long now, long ttlNanos) {
+            if (pending || (status != Status.UNKNOWN && now - checkedAt < ttlNanos)) {
+                return false;
+            }
+            pending = true;
+            return true;
+        }
+
+        synchronized boolean isExpired(long now, long ttlNanos) {
+            return !pending && now - checkedAt >= ttlNanos;
+        }
+
+        synchronized boolean expire() {
+            if (pending) {
+                dirty = true;
+                return false;
+            }
+            pending = true;
+            return true;
+        }
+
+        synchronized boolean resolve(Status value, long now) {
+            status = value;
+            checkedAt = now;
+            if (dirty) {
+                // invalidated while checking, the value may already be stale
+                dirty = false;
+                return false;
+            }
+            pending = false;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Compact identity of the content of a configuration, suitable as a cache key.
+ * It covers the paths, sizes and modification times of the files used by a configuration
+ * (app executable, JDK release file, clusters and NBMs) as well as its other settings.
+ * Contents are also hashed if {@link #CONTENT_HASH_PROPERTY} is set.
+ */
+@lombok.Value
+public class Fingerprint {
+
+    public static final String CONTENT_HASH_PROPERTY = "beanzooka.fingerprint.contentHash";
+
+    private static final int SHORT_LENGTH = 8;
+
+    @lombok.NonNull
+    String value;
+
+    @NonNull
+    public String getShortValue() {
+        return value.substring(0, Math.min(SHORT_LENGTH, value.length()));
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    @NonNull
+    public static Fingerprint of(@NonNull Configuration configuration) {
+        return of(configuration, Boolean.getBoolean(CONTENT_HASH_PROPERTY));
+    }
+
+    static Fingerprint of(Configuration configuration, boolean contentHash) {
+        Hasher hasher = new Hasher(contentHash);
+        hasher.putFile(configuration.getApp().getFile());
+        hasher.putFile(configuration.getJdk().getJavaHome().toPath().resolve("release").toFile());
+        hasher.putString(configuration.getJdk().getJavaHome().getAbsolutePath());
+        hasher.putString(configuration.getJdk().getOptions());
+        configuration.getJdk().getClusters().forEach(hasher::putFile);
+        hasher.putString(configuration.getUserDir().map(UserDir::toString).orElse(null));
+        hasher.putString(configuration.getTempBaseDir() != null ? configuration.getTempBaseDir().getAbsolutePath() : null);
+        hasher.putString(Boolean.toString(configuration.isSharedPlugins()));
+        hasher.putString(Boolean.toString(configuration.isFlightRecording()));
+        configuration.getPlugins().forEach(plugin -> hasher.putFile(plugin.getFile()));
+        return new Fingerprint(hasher.toHex());
+    }
+
+    private static final class Hasher {
+
+        private final boolean contentHash;
+        private final MessageDigest digest;
+
+        Hasher(boolean contentHash) {
+            this.contentHash = contentHash;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        void putString(String text) {
+            if (text != null) {
+                digest.update(text.getBytes(StandardCharsets.UTF_8));
+            }
+            // separates consecutive values
+            digest.update((byte) 0);
+        }
+
+        void putFile(File file) {
+            putString(file.getAbsolutePath());
+            putString(Long.toString(file.length()));
+            putString(Long.toString(file.lastModified()));
+            if (contentHash && file.isFile()) {
+                byte[] buffer = new byte[8192];
+                try (InputStream stream = Files.newInputStream(file.toPath())) {
+                    int n;
+                    while ((n = stream.read(buffer)) != -1) {
+                        digest.update(buffer, 0, n);
+                    }
+                } catch (IOException ex) {
+                    // the stamp of the file is then the only thing that identifies it
+                    putString(ex.getClass().getName());
+                }
+            }
+        }
+
+        String toHex() {
+            StringBuilder result = new StringBuilder();
+            for (byte b : digest.digest()) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Java Flight Recorder support: options that record a session and summary of the recording.
+ * <p>
+ * Recordings are read through {@code jdk.jfr.consumer} by reflection
+ * because this API is not part of all the Java versions supported by Beanzooka.
+ */
+@lombok.experimental.UtilityClass
+public class FlightRecording {
+
+    public static final int TOP_METHODS = 10;
+
+    public File resolveRecordingFile(@NonNull File workingDir) {
+        return workingDir.toPath().resolve("var").resolve("log").resolve("beanzooka.jfr").toFile();
+    }
+
+    /**
+     * Gets the launcher options that record a session with the profiling settings
+     * and dump the recording to {@link #resolveRecordingFile(File)} when the app exits.
+     * The file name is quoted, as launchers split options on spaces.
+     */
+    public @NonNull String getLauncherOptions(@NonNull File workingDir) {
+        // escaped since the options are written between double quotes in the config file
+        return "-J-XX:StartFlightRecording=dumponexit=true,settings=profile,filename=\\\"" + resolveRecordingFile(workingDir) + "\\\"";
+    }
+
+    public boolean isSupported() {
+        return Api.INSTANCE != null;
+    }
+
+    /**
+     * Summarizes a recording.
+     *
+     * @param file a non-null recording file
+     * @return a non-null summary
+     * @throws IOException if the file cannot be read or if the current runtime cannot read recordings
+     */
+    public @NonNull Summary summarize(@NonNull Path file) throws IOException {
+        Api api = Api.INSTANCE;
+        if (api == null) {
+            throw new IOException("Flight recordings cannot be read by this Java runtime");
+        }
+        try {
+            return api.summarize(file);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex.getCause());
+        } catch (ReflectiveOperationException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @lombok.Value
+    public static class Summary {
+
+        Duration duration;
+
+        long executionSamples;
+
+        /**
+         * Methods found on top of the execution samples, the hottest first.
+         */
+        List<HotMethod> hotMethods;
+
+        int gcCount;
+
+        Duration gcPauseTotal;
+
+        Duration gcPauseMax;
+
+        /**
+         * Estimated from allocation samples or from TLAB events on older runtimes.
+         */
+        long allocatedBytes;
+
+        public double getAllocationRate() {
+            return duration.isZero() ? 0 : allocatedBytes * 1e9 / duration.toNanos();
+        }
+    }
+
+    @lombok.Value
+    public static class HotMethod {
+
+        String name;
+
+        long samples;
+    }
+
+    private static final class Api {
+
+        static final Api INSTANCE = load();
+
+        private static Api load() {
+            try {
+                return new Api();
+            } catch (ReflectiveOperationException | LinkageError ex) {
+                return null;
+            }
+        }
+
+        private final Constructor<?> newRecordingFile;
+        private final Method hasMoreEvents;
+        private final Method readEvent;
+        private final Method close;
+        private final Method getEventType;
+        private final Method getTypeName;
+        private final Method getStartTime;
+        private final Method getEndTime;
+        private final Method getStackTrace;
+        private final Method getFrames;
+        private final Method getMethod;
+        private final Method getDeclaringType;
+        private final Method getClassName;
+        private final Method getMethodName;
+        private final Method hasField;
+        private final Method getLong;
+        private final Method getDuration;
+
+        private Api() throws ReflectiveOperationException {
+            Class<?> recordingFile = Class.forName("jdk.jfr.consumer.RecordingFile");
+            Class<?> recordedObject = Class.forName("jdk.jfr.consumer.RecordedObject");
+            Class<?> recordedEvent = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            Class<?> recordedMethod = Class.forName("jdk.jfr.consumer.RecordedMethod");
+            newRecordingFile = recordingFile.getConstructor(Path.class);
+            hasMoreEvents = recordingFile.getMethod("hasMoreEvents");
+            readEvent = recordingFile.getMethod("readEvent");
+            close = recordingFile.getMethod("close");
+            getEventType = recordedEvent.getMethod("getEventType");
+            getTypeName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+            getStartTime = recordedEvent.getMethod("getStartTime");
+            getEndTime = recordedEvent.getMethod("getEndTime");
+            getStackTrace = recordedEvent.getMethod("getStackTrace");
+            getFrames = Class.forName("jdk.jfr.consumer.RecordedStackTrace").getMethod("getFrames");
+            getMethod = Class.forName("jdk.jfr.consumer.RecordedFrame").getMethod("getMethod");
+            getDeclaringType = recordedMethod.getMethod("getType");
+            getClassName = Class.forName("jdk.jfr.consumer.RecordedClass").getMethod("getName");
+            getMethodName = recordedMethod.getMethod("getName");
+            hasField = recordedObject.getMethod("hasField", String.class);
+            getLong = recordedObject.getMethod("getLong", String.class);
+            getDuration = recordedObject.getMethod("getDuration", String.class);
+        }
+
+        Summary summarize(Path file) throws ReflectiveOperationException {
+            Map<String, Long> topFrames = new HashMap<>();
+            long executionSamples = 0;
+            int gcCount = 0;
+            Duration gcPauseTotal = Duration.ZERO;
+            Duration gcPauseMax = Duration.ZERO;
+            long sampledBytes = 0;
+            long tlabBytes = 0;
+            Instant first = null;
+            Instant last = null;
+            Object recording = newRecordingFile.newInstance(file);
+            try {
+                while ((Boolean) hasMoreEvents.invoke(recording)) {
+                    Object event = readEvent.invoke(recording);
+                    Instant start = (Instant) getStartTime.invoke(event);
+                    Instant end = (Instant) getEndTime.invoke(event);
+                    first = first == null || start.isBefore(first) ? start : first;
+                    last = last == null || end.isAfter(last) ? end : last;
+                    switch ((String) getTypeName.invoke(getEventType.invoke(event))) {
+                        case "jdk.ExecutionSample":
+                            executionSamples++;
+                            String topFrame = getTopFrame(event);
+                            if (topFrame != null) {
+                                topFrames.merge(topFrame, 1L, Long::sum);
+                            }
+                            break;
+                        case "jdk.GarbageCollection":
+                            gcCount++;
+                            gcPauseTotal = gcPauseTotal.plus(getDuration(event, "sumOfPauses"));
+                            Duration longestPause = getDuration(event, "longestPause");
+                            gcPauseMax = longestPause.compareTo(gcPauseMax) > 0 ? longestPause : gcPauseMax;
+                            break;
+                        case "jdk.ObjectAllocationSample":
+                            sampledBytes += getLong(event, "weight");
+                            break;
+                        case "jdk.ObjectAllocationInNewTLAB":
+                            tlabBytes += getLong(event, "tlabSize");
+                            break;
+                        case "jdk.ObjectAllocationOutsideTLAB":
+                            tlabBytes += getLong(event, "allocationSize");
+                            break;
+                    }
+                }
+            } finally {
+                close.invoke(recording);
+            }
+            List<HotMethod> hotMethods = topFrames.entrySet()
+                    .stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(TOP_METHODS)
+                    .map(entry -> new HotMethod(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList());
+            return new Summary(
+                    first != null ? Duration.between(first, last) : Duration.ZERO,
+                    executionSamples, hotMethods,
+                    gcCount, gcPauseTotal, gcPauseMax,
+                    // both kinds of events may be enabled and would then count the same allocations
+                    sampledBytes > 0 ? sampledBytes : tlabBytes);
+        }
+
+        private String getTopFrame(Object event) throws ReflectiveOperationException {
+            Object stackTrace = getStackTrace.invoke(event);
+            if (stackTrace == null) {
+                return null;
+            }
+            List<?> frames = (List<?>) getFrames.invoke(stackTrace);
+            if (frames.isEmpty()) {
+                return null;
+            }
+            Object method = getMethod.invoke(frames.get(0));
+            return getClassName.invoke(getDeclaringType.invoke(method)) + "." + getMethodName.invoke(method);
+        }
+
+        private long getLong(Object event, String field) throws ReflectiveOperationException {
+            return (Boolean) hasField.invoke(event, field) ? (Long) getLong.invoke(event, field) : 0;
+        }
+
+        private Duration getDuration(Object event, String field) throws ReflectiveOperationException {
+            return (Boolean) hasField.invoke(event, field) ? (Duration) getDuration.invoke(event, field) : Duration.ZERO;
+        }
+    }
+}
@@ -21,15 +21,12 @@ import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
 import nbbrd.design.VisibleForTesting;
 import nbbrd.io.sys.OS;
-import nbbrd.io.sys.ProcessReader;
 import nbbrd.io.sys.SystemProperties;
 import nbbrd.io.win.WhereWrapper;
 import org.jspecify.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -37,6 +34,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -107,12 +105,16 @@ public class Jdk {
     }
 
     public static List<Jdk> findJdks(Function<String, File[]> engine) {
-        return ResourceFinder.findResources(List.of(
-                new JavaHomeProperty(),
-                new JavaHomeEnv(),
-                new DesktopSearch(engine),
-                new WhereSearch()
-        ));
+        return ParallelResourceFinder
+                .<Jdk>builder()
+                .finder(new JavaHomeProperty())
+                .finder(new JavaHomeEnv())
+                .finder(new DesktopSearch(engine))
+                .finder(new WhereSearch())
+                .finder(new FileSystemSearch(FileSystemScanner.DEFAULT))
+                .key(Jdk::getJavaHome)
+                .build()
+                .findResources();
     }
 
     @VisibleForTesting
@@ -153,6 +155,8 @@ public class Jdk {
     @VisibleForTesting
     static final class WhereSearch implements ResourceFinder<Jdk> {
 
+        private static final long WHERE_TIMEOUT_IN_SECONDS = 60;
+
         @lombok.experimental.Delegate
         private final JavaRuntimeSupport delegate = JavaRuntimeSupport
                 .builder()
@@ -162,19 +166,40 @@ public class Jdk {
         private static File[] where() {
             if (OS.NAME.equals(OS.Name.WINDOWS)) {
                 try {
-                    Process p = new ProcessBuilder(WhereWrapper.COMMAND, "javaw")
-                            .redirectError(ProcessBuilder.Redirect.INHERIT)
-                            .start();
-                    try (BufferedReader reader = ProcessReader.newReader(Charset.defaultCharset(), p)) {
-                        return reader.lines().map(File::new).toArray(File[]::new);
-                    }
+                    // the process is destroyed when the finder is cancelled
+                    return Util.execute(new ProcessBuilder(WhereWrapper.COMMAND, "javaw").redirectError(ProcessBuilder.Redirect.INHERIT), WHERE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)
+                            .map(lines -> lines.stream().filter(line -> !line.isEmpty()).map(File::new).toArray(File[]::new))
+                            .orElseGet(() -> new File[0]);
                 } catch (IOException ignore) {
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
                 }
             }
             return new File[0];
         }
     }
 
+    @VisibleForTesting
+    @lombok.RequiredArgsConstructor
+    static final class FileSystemSearch implements ResourceFinder<Jdk>, FileSystemScanner.Recognizer<Jdk> {
+
+        @lombok.NonNull
+        private final FileSystemScanner scanner;
+
+        @Override
+        public void addResourcesTo(@NonNull Consumer<? super Jdk> consumer) {
+            scanner.scan(this, consumer);
+        }
+
+        @Override
+        public @Nullable Jdk recognizeDirectory(@NonNull Path dir) {
+            File javaHome = dir.toFile();
+            return Files.isRegularFile(JdkInfo.getJavaFile(javaHome)) && Files.isRegularFile(JdkInfo.getReleaseFile(javaHome))
+                    ? ofJavaHome(javaHome)
+                    : null;
+        }
+    }
+
     @lombok.Builder
     private static final class JavaHomeSupport implements ResourceFinder<Jdk> {
 
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import nbbrd.design.VisibleForTesting;
+import nbbrd.io.sys.OS;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Describes the version, vendor and architecture of a JDK.
+ * It is read from the {@code release} file of its home, falling back to the system properties printed by the JDK itself.
+ */
+@lombok.Value
+@lombok.Builder
+@lombok.extern.java.Log
+public class JdkInfo {
+
+    @Nullable
+    String version;
+
+    @Nullable
+    String vendor;
+
+    @Nullable
+    String architecture;
+
+    @Override
+    public String toString() {
+        return Optional.ofNullable(version).orElse("?")
+                + (vendor != null ? " " + vendor : "")
+                + (architecture != null ? " (" + architecture + ")" : "");
+    }
+
+    /**
+     * Reads the info of a JDK without using any cache.
+     *
+     * @param javaHome a non-null java home
+     * @return a non-null optional, empty if the folder is not a JDK
+     */
+    public static @NonNull Optional<JdkInfo> read(@NonNull File javaHome) {
+        Path release = getReleaseFile(javaHome);
+        if (Files.isRegularFile(release)) {
+            try {
+                Optional<JdkInfo> result = parseRelease(Files.readAllLines(release, StandardCharsets.ISO_8859_1));
+                if (result.isPresent()) {
+                    return result;
+                }
+            } catch (IOException ex) {
+                log.log(Level.FINE, "Cannot read " + release, ex);
+            }
+        }
+        return probe(javaHome);
+    }
+
+    static Path getReleaseFile(File javaHome) {
+        return javaHome.toPath().resolve("release");
+    }
+
+    static Path getJavaFile(File javaHome) {
+        return javaHome.toPath().resolve("bin").resolve(OS.NAME.equals(OS.Name.WINDOWS) ? "java.exe" : "java");
+    }
+
+    @VisibleForTesting
+    static Optional<JdkInfo> parseRelease(List<String> lines) {
+        Map<String, String> entries = new HashMap<>();
+        for (String line : lines) {
+            int index = line.indexOf('=');
+            if (index > 0) {
+                entries.put(line.substring(0, index).trim(), unquote(line.substring(index + 1).trim()));
+            }
+        }
+        String version = entries.get("JAVA_VERSION");
+        return version != null
+                ? Optional.of(new JdkInfo(version, entries.get("IMPLEMENTOR"), entries.get("OS_ARCH")))
+                : Optional.empty();
+    }
+
+    @VisibleForTesting
+    static Optional<JdkInfo> parseSettings(List<String> lines) {
+        Map<String, String> entries = new HashMap<>();
+        for (String line : lines) {
+            int index = line.indexOf(" = ");
+            if (index > 0) {
+                entries.putIfAbsent(line.substring(0, index).trim(), line.substring(index + 3).trim());
+            }
+        }
+        String version = entries.get("java.version");
+        return version != null
+                ? Optional.of(new JdkInfo(version, entries.get("java.vendor"), entries.get("os.arch")))
+                : Optional.empty();
+    }
+
+    private static final long PROBE_TIMEOUT_IN_SECONDS = 10;
+
+    private static Optional<JdkInfo> probe(File javaHome) {
+        Path java = getJavaFile(javaHome);
+        if (!Files.isRegularFile(java)) {
+            return Optional.empty();
+        }
+        try {
+            return Util.execute(new ProcessBuilder(java.toString(), "-XshowSettings:properties", "-version").redirectErrorStream(true), PROBE_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)
+                    .flatMap(JdkInfo::parseSettings);
+        } catch (IOException ex) {
+            log.log(Level.FINE, "Cannot probe " + java, ex);
+            return Optional.empty();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private static String unquote(String text) {
+        return text.length() >= 2 && text.startsWith("\"") && text.endsWith("\"")
+                ? text.substring(1, text.length() - 1)
+                : text;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+/**
+ * Keeps the {@link JdkInfo} of known JDKs in a properties file so that they are read or probed only once.
+ * Entries are keyed by the java home and the modification time of its release file (or of its java executable)
+ * so that an updated JDK is read again.
+ */
+@lombok.extern.java.Log
+public final class JdkInfoCache {
+
+    public static final String FILE_PROPERTY = "beanzooka.jdks.cache.file";
+
+    // lookups are cheap once stored, so they are done again from time to time to notice updated JDKs
+    private static final Duration REFRESH = Duration.ofSeconds(10);
+
+    public static final JdkInfoCache DEFAULT = new JdkInfoCache(getDefaultFile());
+
+    private static Path getDefaultFile() {
+        String file = System.getProperty(FILE_PROPERTY);
+        return file != null
+                ? Paths.get(file)
+                : Paths.get(System.getProperty("user.home"), ".beanzooka", "cache", "jdks.properties");
+    }
+
+    private static final String STAMP = ".stamp";
+    private static final String VERSION = ".version";
+    private static final String VENDOR = ".vendor";
+    private static final String ARCHITECTURE = ".architecture";
+
+    @lombok.Getter
+    private final Path file;
+
+    private final Map<File, Lookup> loading = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Util.daemonThreadFactory("beanzooka-jdks"));
+    private final long refreshNanos;
+    private final LongSupplier ticker;
+    private Properties entries;
+
+    JdkInfoCache(@NonNull Path file) {
+        this(file, REFRESH, System::nanoTime);
+    }
+
+    JdkInfoCache(@NonNull Path file, @NonNull Duration refresh, @NonNull LongSupplier ticker) {
+        this.file = file;
+        this.refreshNanos = refresh.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Gets the info of a JDK through the cache.
+     *
+     * @param javaHome a non-null java home
+     * @return a non-null optional, empty if the folder is not a JDK
+     */
+    public @NonNull Optional<JdkInfo> getInfo(@NonNull File javaHome) {
+        String key = javaHome.getAbsolutePath();
+        String stamp = getStamp(javaHome);
+        if (stamp == null) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            Properties properties = getEntries();
+            if (stamp.equals(properties.getProperty(key + STAMP))) {
+                return Optional.of(new JdkInfo(properties.getProperty(key + VERSION), properties.getProperty(key + VENDOR), properties.getProperty(key + ARCHITECTURE)));
+            }
+        }
+        Optional<JdkInfo> result = JdkInfo.read(javaHome);
+        result.ifPresent(info -> put(key, stamp, info));
+        return result;
+    }
+
+    /**
+     * Gets the info of a JDK through the cache on a background thread.
+     * Futures are kept so that renderers may poll them, and are replaced by a new lookup once outdated.
+     * The previous result is returned while such a lookup is running.
+     *
+     * @param javaHome a non-null java home
+     * @return a non-null future
+     */
+    public @NonNull CompletableFuture<Optional<JdkInfo>> getInfoAsync(@NonNull File javaHome) {
+        long now = ticker.getAsLong();
+        Lookup result = loading.compute(javaHome, (key, previous) -> {
+            if (previous == null) {
+                return new Lookup(CompletableFuture.supplyAsync(() -> getInfo(key), executor), null, now);
+            }
+            if (previous.current.isDone() && now - previous.startedAt >= refreshNanos) {
+                return new Lookup(CompletableFuture.supplyAsync(() -> getInfo(key), executor), previous.current, now);
+            }
+            return previous;
+        });
+        return result.previous != null && !result.current.isDone() ? result.previous : result.current;
+    }
+
+    private synchronized void put(String key, String stamp, JdkInfo info) {
+        Properties properties = getEntries();
+        properties.setProperty(key + STAMP, stamp);
+        setOrRemove(properties, key + VERSION, info.getVersion());
+        setOrRemove(properties, key + VENDOR, info.getVendor());
+        setOrRemove(properties, key + ARCHITECTURE, info.getArchitecture());
+        try {
+            store(properties);
+        } catch (IOException ex) {
+            log.log(Level.WARNING, "Failed to store JDK cache to " + file, ex);
+        }
+    }
+
+    private Properties getEntries() {
+        if (entries == null) {
+            entries = new Properties();
+            try (InputStream stream = Files.newInputStream(file)) {
+                entries.load(stream);
+            } catch (NoSuchFileException ex) {
+                // first run
+            } catch (IOException | IllegalArgumentException ex) {
+                log.log(Level.WARNING, "Ignoring unreadable JDK cache " + file, ex);
+                entries.clear();
+            }
+        }
+        return entries;
+    }
+
+    private void store(Properties properties) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp)) {
+            properties.store(stream, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String getStamp(File javaHome) {
+        for (Path path : new Path[]{JdkInfo.getReleaseFile(javaHome), JdkInfo.getJavaFile(javaHome)}) {
+            try {
+                return path.getFileName() + ":" + Files.getLastModifiedTime(path).toMillis();
+            } catch (IOException ex) {
+                // try next
+            }
+        }
+        return null;
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Lookup {
+
+        final CompletableFuture<Optional<JdkInfo>> current;
+        final CompletableFuture<Optional<JdkInfo>> previous;
+        final long startedAt;
+    }
+
+    private static void setOrRemove(Properties properties, String key, String value) {
+        if (value != null) {
+            properties.setProperty(key, value);
+        } else {
+            properties.remove(key);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+/**
+ * Receives the progress of a launch.
+ * Methods are called from the threads doing the work and must therefore be thread-safe.
+ */
+public interface LaunchListener {
+
+    enum Stage {
+        PREPARE_DIR, WRITE_CONFIG, EXTRACT_PLUGINS, SEED_CACHE, START_PROCESS
+    }
+
+    LaunchListener NO_OP = new LaunchListener() {
+    };
+
+    default void onStage(@NonNull Stage stage) {
+    }
+
+    default void onBytesCopied(long bytes) {
+    }
+
+    default void onEntriesExtracted(int entries) {
+    }
+
+    /**
+     * Reports the time spent extracting all the plugins of the session.
+     */
+    default void onPluginsExtracted(int plugins, long millis) {
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cartesian product of apps, JDKs and plugin sets that share the same user dir settings.
+ */
+@lombok.Value
+@lombok.Builder
+public class LaunchMatrix {
+
+    @lombok.Singular
+    List<App> apps;
+
+    @lombok.Singular
+    List<Jdk> jdks;
+
+    @lombok.Singular
+    List<List<Plugin>> pluginSets;
+
+    @lombok.NonNull
+    @lombok.Builder.Default
+    Optional<UserDir> userDir = Optional.empty();
+
+    @Nullable
+    File tempBaseDir;
+
+    boolean sharedPlugins;
+
+    boolean flightRecording;
+
+    /**
+     * Builds a configuration for each cell of the matrix, apps varying the slowest and plugin sets the fastest.
+     * A matrix without plugin sets is considered as having a single empty one.
+     *
+     * @return a non-null list of configurations
+     */
+    @NonNull
+    public List<Configuration> getConfigurations() {
+        List<List<Plugin>> sets = pluginSets.isEmpty() ? Collections.singletonList(Collections.emptyList()) : pluginSets;
+        List<Configuration> result = new ArrayList<>();
+        for (App app : apps) {
+            for (Jdk jdk : jdks) {
+                for (List<Plugin> plugins : sets) {
+                    result.add(Configuration
+                            .builder()
+                            .app(app)
+                            .jdk(jdk)
+                            .userDir(userDir)
+                            .tempBaseDir(tempBaseDir)
+                            .plugins(plugins)
+                            .sharedPlugins(sharedPlugins)
+                            .flightRecording(flightRecording)
+                            .build());
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Runs launch tasks with a concurrency limit.
+ * A task holds its slot until the stage it returns is completed, typically when its session ends.
+ * Beyond the first running task, a task is only started if the admission check passes; otherwise the check
+ * is retried periodically so that the machine is not overcommitted.
+ * Methods are thread-safe.
+ */
+@lombok.extern.java.Log
+public final class LaunchQueue {
+
+    public static final String CONCURRENCY_PROPERTY = "beanzooka.queue.concurrency";
+    public static final String MIN_AVAILABLE_MEMORY_PROPERTY = "beanzooka.queue.minAvailableMemory";
+    public static final String MAX_LOAD_PER_CPU_PROPERTY = "beanzooka.queue.maxLoadPerCpu";
+    public static final String START_GRACE_PROPERTY = "beanzooka.queue.startGrace";
+
+    public static final long DEFAULT_MIN_AVAILABLE_MEMORY = 1024L * 1024 * 1024;
+    public static final double DEFAULT_MAX_LOAD_PER_CPU = 1.0;
+    public static final Duration DEFAULT_START_GRACE = Duration.ofSeconds(30);
+
+    private static final Duration DEFAULT_RETRY_PERIOD = Duration.ofSeconds(2);
+
+    public static int getDefaultConcurrency() {
+        return Math.max(1, Integer.getInteger(CONCURRENCY_PROPERTY, Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    /**
+     * Decides if a new task can be started while others are running.
+     */
+    @FunctionalInterface
+    public interface Admission {
+
+        Admission ALWAYS = () -> true;
+
+        boolean isAdmissible();
+
+        /**
+         * Called when a task is started.
+         */
+        default void onStarted() {
+        }
+
+        /**
+         * Holds back tasks for a grace period after each start,
+         * since system metrics lag behind a session that just started.
+         *
+         * @param grace a non-null grace period
+         * @return a non-null admission
+         */
+        @NonNull
+        default Admission withStartGrace(@NonNull Duration grace) {
+            return new StartGrace(this, grace.toNanos(), System::nanoTime);
+        }
+
+        /**
+         * Admits tasks while the machine has enough available memory and is not overloaded.
+         * Unknown metrics are ignored.
+         *
+         * @param minAvailableMemory the minimum available memory in bytes
+         * @param maxLoadPerCpu      the maximum load average divided by the number of processors
+         * @return a non-null admission
+         */
+        @NonNull
+        static Admission ofSystemLoad(long minAvailableMemory, double maxLoadPerCpu) {
+            return () -> {
+                OptionalLong memory = SystemLoad.getAvailableMemory();
+                if (memory.isPresent() && memory.getAsLong() < minAvailableMemory) {
+                    log.log(Level.FINE, "Delaying launch: {0} bytes of available memory", memory.getAsLong());
+                    return false;
+                }
+                OptionalDouble load = SystemLoad.getLoadAverage();
+                if (load.isPresent() && load.getAsDouble() / SystemLoad.getProcessorCount() > maxLoadPerCpu) {
+                    log.log(Level.FINE, "Delaying launch: load average of {0}", load.getAsDouble());
+                    return false;
+                }
+                return true;
+            };
+        }
+
+        @NonNull
+        static Admission getDefault() {
+            return ofSystemLoad(
+                    Long.getLong(MIN_AVAILABLE_MEMORY_PROPERTY, DEFAULT_MIN_AVAILABLE_MEMORY),
+                    Double.parseDouble(System.getProperty(MAX_LOAD_PER_CPU_PROPERTY, Double.toString(DEFAULT_MAX_LOAD_PER_CPU))))
+                    .withStartGrace(Duration.ofMillis(Long.getLong(START_GRACE_PROPERTY, DEFAULT_START_GRACE.toMillis())));
+        }
+    }
+
+    private int concurrency;
+
+    private final Admission admission;
+    private final Duration retryPeriod;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(Util.daemonThreadFactory("beanzooka-queue"));
+    private final Deque<Task> pending = new ArrayDeque<>();
+    private int running = 0;
+    private boolean retryScheduled = false;
+
+    public LaunchQueue(int concurrency, @NonNull Admission admission) {
+        this(concurrency, admission, DEFAULT_RETRY_PERIOD);
+    }
+
+    LaunchQueue(int concurrency, Admission admission, Duration retryPeriod) {
+        this.concurrency = checkConcurrency(concurrency);
+        this.admission = admission;
+        this.retryPeriod = retryPeriod;
+    }
+
+    public synchronized int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Changes the maximum number of running tasks.
+     * Running tasks are never interrupted if the limit is lowered.
+     *
+     * @param concurrency a strictly positive number
+     */
+    public void setConcurrency(int concurrency) {
+        synchronized (this) {
+            this.concurrency = checkConcurrency(concurrency);
+        }
+        scheduler.execute(this::schedule);
+    }
+
+    private static int checkConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Invalid concurrency: " + concurrency);
+        }
+        return concurrency;
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param task starts the work and returns a stage completed when the work is done
+     * @return a future completed when the work is done; cancelling it removes the task if still pending
+     */
+    @NonNull
+    public CompletableFuture<Void> submit(@NonNull Supplier<? extends CompletionStage<?>> task) {
+        Task result = new Task(task);
+        synchronized (this) {
+            pending.add(result);
+        }
+        scheduler.execute(this::schedule);
+        return result;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    private void schedule() {
+        Task next;
+        while ((next = poll()) != null) {
+            start(next);
+        }
+    }
+
+    private synchronized Task poll() {
+        pending.removeIf(CompletableFuture::isDone);
+        if (pending.isEmpty() || running >= concurrency) {
+            return null;
+        }
+        if (running > 0 && !admission.isAdmissible()) {
+            if (!retryScheduled) {
+                retryScheduled = true;
+                scheduler.schedule(this::retry, retryPeriod.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return null;
+        }
+        running++;
+        admission.onStarted();
+        return pending.poll();
+    }
+
+    private void retry() {
+        synchronized (this) {
+            retryScheduled = false;
+        }
+        schedule();
+    }
+
+    private void start(Task task) {
+        CompletionStage<?> stage;
+        try {
+            stage = task.supplier.get();
+        } catch (RuntimeException ex) {
+            stage = failedStage(ex);
+        }
+        stage.whenComplete((value, ex) -> {
+            synchronized (this) {
+                running--;
+            }
+            if (ex != null) {
+                task.completeExceptionally(ex);
+            } else {
+                task.complete(null);
+            }
+            scheduler.execute(this::schedule);
+        });
+    }
+
+    private static CompletionStage<?> failedStage(Throwable ex) {
+        CompletableFuture<?> result = new CompletableFuture<>();
+        result.completeExceptionally(ex);
+        return result;
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Task extends CompletableFuture<Void> {
+
+        private final Supplier<? extends CompletionStage<?>> supplier;
+    }
+
+    // the load average is a one-minute mean and the available memory grows with the heap of a new JVM
+    @lombok.RequiredArgsConstructor
+    static final class StartGrace implements Admission {
+
+        private final Admission delegate;
+        private final long graceNanos;
+        private final LongSupplier ticker;
+        private volatile boolean started = false;
+        private volatile long lastStart;
+
+        @Override
+        public boolean isAdmissible() {
+            if (started && ticker.getAsLong() - lastStart < graceNanos) {
+                log.log(Level.FINE, "Delaying launch: last one started less than {0} ms ago", TimeUnit.NANOSECONDS.toMillis(graceNanos));
+                return false;
+            }
+            return delegate.isAdmissible();
+        }
+
+        @Override
+        public void onStarted() {
+            lastStart = ticker.getAsLong();
+            started = true;
+            delegate.onStarted();
+        }
+    }
+}
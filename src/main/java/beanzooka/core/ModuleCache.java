@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.logging.Level;
+
+/**
+ * Keeps snapshots of the module caches of NetBeans (the var/cache dir of a user dir) so that fresh user dirs
+ * of an identical configuration skip the scanning of modules and layers at startup.
+ * Snapshots are keyed by the {@link Fingerprint} of the configuration
+ * and evicted in least-recently-used order when there are too many of them.
+ */
+@lombok.extern.java.Log
+public final class ModuleCache {
+
+    public static final String DIR_PROPERTY = "beanzooka.modules.cache.dir";
+    public static final String MAX_ENTRIES_PROPERTY = "beanzooka.modules.cache.maxEntries";
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    public static final ModuleCache DEFAULT = ModuleCache
+            .builder()
+            .root(getDefaultRoot())
+            .maxEntries(Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES))
+            .build();
+
+    private static Path getDefaultRoot() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        return dir != null
+                ? Paths.get(dir)
+                : Paths.get(System.getProperty("user.home"), ".beanzooka", "cache", "modules");
+    }
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String DELETED_SUFFIX = ".del";
+
+    @lombok.Getter
+    private final Path root;
+
+    /**
+     * Maximum number of snapshots, zero disables the cache.
+     */
+    @lombok.Getter
+    private final int maxEntries;
+
+    @lombok.Builder
+    private ModuleCache(@NonNull Path root, int maxEntries) {
+        this.root = root;
+        this.maxEntries = maxEntries;
+    }
+
+    public static Path resolveCacheDir(File workingDir) {
+        return workingDir.toPath().resolve("var").resolve("cache");
+    }
+
+    /**
+     * Takes a snapshot of the caches of a working dir, replacing the previous one of the same configuration.
+     *
+     * @param configuration the configuration that populated the working dir
+     * @param workingDir    a working dir whose session is finished
+     * @return true if a snapshot was taken, false if there is nothing to capture or if the cache is disabled
+     * @throws IOException if the caches cannot be copied
+     */
+    public boolean capture(@NonNull Configuration configuration, @NonNull File workingDir) throws IOException {
+        Path source = resolveCacheDir(workingDir);
+        if (maxEntries <= 0 || !Files.isDirectory(source)) {
+            return false;
+        }
+        Path entry = root.resolve(getKey(configuration));
+        Files.createDirectories(root);
+        Path temp = Files.createTempDirectory(root, entry.getFileName() + TEMP_SUFFIX);
+        try {
+            Util.copyAllInParallel(source, temp, ParallelCopy.getDefaultParallelism(), size -> {
+            });
+            synchronized (this) {
+                if (Files.isDirectory(entry)) {
+                    delete(entry);
+                }
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException ex) {
+            Util.deleteAll(temp);
+            throw ex;
+        }
+        evict(entry);
+        return true;
+    }
+
+    /**
+     * Populates the caches of a fresh working dir from the snapshot of its configuration.
+     * Working dirs that already have caches are left untouched.
+     *
+     * @param configuration the configuration that populated the working dir
+     * @param workingDir    a non-null working dir
+     * @param onBytesCopied called with the size of each copied file
+     * @return true if the caches were seeded
+     * @throws IOException if the snapshot cannot be copied
+     */
+    public boolean seed(@NonNull Configuration configuration, @NonNull File workingDir, @NonNull LongConsumer onBytesCopied) throws IOException {
+        Path target = resolveCacheDir(workingDir);
+        if (maxEntries <= 0 || Files.exists(target)) {
+            return false;
+        }
+        Path entry = root.resolve(getKey(configuration));
+        if (!Files.isDirectory(entry)) {
+            return false;
+        }
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        Util.copyAllInParallel(entry, target, ParallelCopy.getDefaultParallelism(), onBytesCopied);
+        log.log(Level.INFO, "Seeded module caches from ''{0}''", entry);
+        return true;
+    }
+
+    public boolean contains(@NonNull Configuration configuration) {
+        return maxEntries > 0 && Files.isDirectory(root.resolve(getKey(configuration)));
+    }
+
+    /**
+     * Removes all the snapshots.
+     *
+     * @throws IOException if a snapshot cannot be deleted
+     */
+    public synchronized void clear() throws IOException {
+        for (Path dir : listEntries()) {
+            delete(dir);
+        }
+    }
+
+    String getKey(Configuration configuration) {
+        return configuration.getFingerprint().getValue();
+    }
+
+    private synchronized void evict(Path keep) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        for (Path dir : listEntries()) {
+            String name = dir.getFileName().toString();
+            if (name.contains(DELETED_SUFFIX)) {
+                delete(dir);
+            } else if (!name.contains(TEMP_SUFFIX) && !dir.equals(keep)) {
+                entries.add(dir);
+            }
+        }
+        entries.sort(Comparator.comparingLong(ModuleCache::getLastUsed));
+        for (int i = 0; i < entries.size() - (maxEntries - 1); i++) {
+            delete(entries.get(i));
+        }
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> result = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+                dirs.forEach(result::add);
+            }
+        }
+        return result;
+    }
+
+    private static long getLastUsed(Path dir) {
+        return dir.toFile().lastModified();
+    }
+
+    private static void delete(Path dir) throws IOException {
+        // renaming first hides the entry from concurrent lookups
+        Path deleted = dir.getFileName().toString().contains(DELETED_SUFFIX)
+                ? dir
+                : Files.move(dir, dir.resolveSibling(dir.getFileName() + DELETED_SUFFIX + System.nanoTime()), StandardCopyOption.ATOMIC_MOVE);
+        Util.deleteAll(deleted);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Copies a file tree on a fork/join pool.
+ * Each directory is a task and large directories are split into batches of files
+ * so that idle workers can steal them.
+ * A parallelism of 1 runs the same tasks in the calling thread without any pool.
+ */
+@lombok.RequiredArgsConstructor
+final class ParallelCopy {
+
+    static final String PARALLELISM_PROPERTY = "beanzooka.copy.parallelism";
+
+    static int getDefaultParallelism() {
+        return Math.max(1, Integer.getInteger(PARALLELISM_PROPERTY, Math.max(2, Runtime.getRuntime().availableProcessors())));
+    }
+
+    private static final int FILES_PER_TASK = 64;
+
+    @FunctionalInterface
+    interface FileCopier {
+
+        FileCopier COPY = (file, target) -> Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+
+        void copy(Path file, Path target) throws IOException;
+    }
+
+    private final Path source;
+    private final Path destination;
+    private final Predicate<String> filter;
+    private final FileCopier copier;
+    private final LongConsumer onFileCopied;
+    private volatile boolean cancelled = false;
+
+    void run(int parallelism) throws IOException {
+        if (parallelism <= 1) {
+            runInCallerThread();
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ForkJoinTask<Void> task = pool.submit(new DirectoryTask(source));
+            try {
+                task.get();
+            } catch (InterruptedException ex) {
+                cancelled = true;
+                task.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Cancelled");
+            } catch (ExecutionException ex) {
+                throw Util.unwrap(ex.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void runInCallerThread() throws IOException {
+        try {
+            // invoke() computes the task and its sub-tasks in the calling thread when it is not a pool worker
+            new DirectoryTask(source).invoke();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (Thread.interrupted()) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cancelled");
+        }
+    }
+
+    private Path resolveTarget(Path path) {
+        return destination.resolve(source.relativize(path).toString());
+    }
+
+    private void copyFile(Path file, long size) {
+        if (cancelled || Thread.currentThread().isInterrupted() || !filter.test(Util.toRelativeName(source, file))) {
+            return;
+        }
+        try {
+            copier.copy(file, resolveTarget(file));
+        } catch (IOException ex) {
+            cancelled = true;
+            throw new UncheckedIOException(ex);
+        }
+        onFileCopied.accept(size);
+    }
+
+    @lombok.RequiredArgsConstructor
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path dir;
+
+        @Override
+        protected void compute() {
+            if (cancelled) {
+                return;
+            }
+            List<ForkJoinTask<?>> subTasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            List<Long> sizes = new ArrayList<>();
+            try {
+                Files.createDirectories(resolveTarget(dir));
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+                    for (Path child : children) {
+                        BasicFileAttributes attrs = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (attrs.isDirectory()) {
+                            subTasks.add(new DirectoryTask(child));
+                        } else {
+                            files.add(child);
+                            sizes.add(attrs.size());
+                            if (files.size() == FILES_PER_TASK) {
+                                subTasks.add(new FileBatchTask(new ArrayList<>(files), new ArrayList<>(sizes)));
+                                files.clear();
+                                sizes.clear();
+                            }
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                cancelled = true;
+                throw new UncheckedIOException(ex);
+            }
+            if (!inForkJoinPool()) {
+                for (int i = 0; i < files.size(); i++) {
+                    copyFile(files.get(i), sizes.get(i));
+                }
+                subTasks.forEach(ForkJoinTask::invoke);
+                return;
+            }
+            subTasks.forEach(ForkJoinTask::fork);
+            for (int i = 0; i < files.size(); i++) {
+                copyFile(files.get(i), sizes.get(i));
+            }
+            subTasks.forEach(ForkJoinTask::join);
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private final class FileBatchTask extends RecursiveAction {
+
+        private final List<Path> files;
+        private final List<Long> sizes;
+
+        @Override
+        protected void compute() {
+            for (int i = 0; i < files.size(); i++) {
+                copyFile(files.get(i), sizes.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Runs several finders in parallel and streams their resources to the consumer as they arrive.
+ * Resources and timings are passed on the calling thread and resources are de-duplicated by a key.
+ * Resources are streamed in their order of arrival but listed in the order of the finders.
+ * Finders that do not complete before the timeout are cancelled and their late resources are ignored.
+ *
+ * @param <R> the type of the resources
+ */
+@lombok.Builder
+@lombok.extern.java.Log
+public final class ParallelResourceFinder<R> implements ResourceFinder<R> {
+
+    public static final String TIMEOUT_PROPERTY = "beanzooka.finder.timeout";
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(Long.getLong(TIMEOUT_PROPERTY, 10_000));
+
+    private static final int MAX_THREADS = 8;
+
+    // bounded because cancelled finders that ignore interruption keep their thread until they return
+    private static final ExecutorService EXECUTOR = newExecutor();
+
+    private static ExecutorService newExecutor() {
+        ThreadPoolExecutor result = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), Util.daemonThreadFactory("beanzooka-finder"));
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    @lombok.Singular
+    private final List<ResourceFinder<R>> finders;
+
+    @lombok.NonNull
+    @lombok.Builder.Default
+    private final Function<? super R, ?> key = Function.identity();
+
+    @lombok.NonNull
+    @lombok.Builder.Default
+    private final Duration timeout = DEFAULT_TIMEOUT;
+
+    @lombok.NonNull
+    @lombok.Builder.Default
+    private final Consumer<? super Timing> onTiming = timing -> {
+    };
+
+    @Override
+    public void addResourcesTo(@NonNull Consumer<? super R> consumer) {
+        Set<Object> keys = new HashSet<>();
+        run((index, resource) -> {
+            if (keys.add(key.apply(resource))) {
+                consumer.accept(resource);
+            }
+        });
+    }
+
+    /**
+     * Finds the resources in parallel but returns them in the order of the finders, then in their order of discovery,
+     * so that the result is the same on each run.
+     */
+    @Override
+    public @NonNull List<R> findResources() {
+        List<List<R>> found = new ArrayList<>();
+        finders.forEach(finder -> found.add(new ArrayList<>()));
+        run((index, resource) -> found.get(index).add(resource));
+        Set<Object> keys = new HashSet<>();
+        List<R> result = new ArrayList<>();
+        for (List<R> resources : found) {
+            for (R resource : resources) {
+                if (keys.add(key.apply(resource))) {
+                    result.add(resource);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void run(BiConsumer<Integer, R> onResource) {
+        BlockingQueue<Event<R>> queue = new LinkedBlockingQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < finders.size(); i++) {
+            int index = i;
+            futures.add(EXECUTOR.submit(() -> find(index, queue)));
+        }
+        boolean[] done = new boolean[finders.size()];
+        int remaining = finders.size();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            while (remaining > 0) {
+                Event<R> event = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (event == null) {
+                    break;
+                }
+                if (event.timing == null) {
+                    onResource.accept(event.index, event.resource);
+                } else {
+                    done[event.index] = true;
+                    remaining--;
+                    report(event.timing);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (int i = 0; i < finders.size(); i++) {
+                if (!done[i]) {
+                    futures.get(i).cancel(true);
+                    report(new Timing(getName(finders.get(i)), Duration.ofNanos(System.nanoTime() - start), -1, true, null));
+                }
+            }
+        }
+    }
+
+    private void find(int index, BlockingQueue<Event<R>> queue) {
+        ResourceFinder<R> finder = finders.get(index);
+        long start = System.nanoTime();
+        int[] count = {0};
+        Throwable error = null;
+        try {
+            finder.addResourcesTo(resource -> {
+                count[0]++;
+                queue.add(new Event<>(index, resource, null));
+            });
+        } catch (RuntimeException ex) {
+            error = ex;
+        }
+        queue.add(new Event<>(index, null, new Timing(getName(finder), Duration.ofNanos(System.nanoTime() - start), count[0], false, error)));
+    }
+
+    private void report(Timing timing) {
+        if (timing.getError() != null) {
+            log.log(Level.WARNING, "Finder " + timing.getName() + " failed", timing.getError());
+        } else if (timing.isTimedOut()) {
+            log.log(Level.WARNING, "Finder {0} timed out after {1} ms", new Object[]{timing.getName(), timing.getDuration().toMillis()});
+        } else {
+            log.log(Level.FINE, "Finder {0} found {1} resource(s) in {2} ms", new Object[]{timing.getName(), timing.getCount(), timing.getDuration().toMillis()});
+        }
+        onTiming.accept(timing);
+    }
+
+    private static String getName(ResourceFinder<?> finder) {
+        Class<?> type = finder.getClass();
+        return type.getEnclosingClass() != null
+                ? type.getEnclosingClass().getSimpleName() + "." + type.getSimpleName()
+                : type.getSimpleName();
+    }
+
+    @lombok.Value
+    public static class Timing {
+
+        @NonNull
+        String name;
+
+        @NonNull
+        Duration duration;
+
+        /**
+         * Number of resources found or -1 if the finder timed out.
+         */
+        int count;
+
+        boolean timedOut;
+
+        @Nullable
+        Throwable error;
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Event<R> {
+
+        final int index;
+        final R resource;
+        final Timing timing;
+    }
+}
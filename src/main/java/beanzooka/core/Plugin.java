@@ -20,16 +20,32 @@ import lombok.AccessLevel;
 import lombok.NonNull;
 import nbbrd.design.StaticFactoryMethod;
 import nbbrd.design.VisibleForTesting;
+import org.jspecify.annotations.Nullable;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 /**
  * @author Philippe Charles
@@ -55,13 +71,109 @@ public class Plugin {
     File file;
 
     public void extract(File folder) throws IOException {
+        extract(folder, size -> {
+        });
+    }
+
+    public void extract(File folder, LongConsumer onEntryExtracted) throws IOException {
+        extract(folder, name -> true, onEntryExtracted);
+    }
+
+    /**
+     * Extracts the content of this plugin into a folder.
+     *
+     * @param folder           the target folder
+     * @param filter           selects the entries to extract by their name relative to the folder
+     * @param onEntryExtracted called with the size of each extracted file
+     * @throws IOException if the plugin cannot be read or extracted
+     */
+    public void extract(File folder, Predicate<String> filter, LongConsumer onEntryExtracted) throws IOException {
+        String prefix = CONTENT_DIR.substring(1) + "/";
+        Path root = folder.toPath().toAbsolutePath().normalize();
+        Set<Path> dirs = new HashSet<>();
+        ByteBuffer buffer = BUFFER.get();
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                Util.checkInterrupted();
+                if (!entry.getName().startsWith(prefix)) {
+                    continue;
+                }
+                String name = entry.getName().substring(prefix.length());
+                Path target = root.resolve(name).normalize();
+                if (!target.startsWith(root)) {
+                    throw new IOException("Invalid entry '" + entry.getName() + "' in " + file);
+                }
+                if (entry.isDirectory()) {
+                    createDirectories(target, dirs);
+                } else if (filter.test(name)) {
+                    createDirectories(target.getParent(), dirs);
+                    onEntryExtracted.accept(write(zip, target, buffer));
+                }
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void extractWithFileSystem(File folder, Predicate<String> filter, LongConsumer onEntryExtracted) throws IOException {
         try (FileSystem fs = FileSystems.newFileSystem(file.toPath(), (ClassLoader) null)) {
-            Util.copyAll(fs.getPath("/netbeans"), folder.toPath());
+            Util.copyAll(fs.getPath(CONTENT_DIR), folder.toPath(), filter, onEntryExtracted);
+        }
+    }
+
+    private static void createDirectories(Path dir, Set<Path> created) throws IOException {
+        if (created.add(dir)) {
+            Files.createDirectories(dir);
+        }
+    }
+
+    private static long write(InputStream input, Path target, ByteBuffer buffer) throws IOException {
+        long result = 0;
+        // replaces the directory entry instead of writing into a file that may be a link to a shared source
+        Files.deleteIfExists(target);
+        try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int n;
+            while ((n = input.read(buffer.array())) != -1) {
+                buffer.clear().limit(n);
+                while (buffer.hasRemaining()) {
+                    result += output.write(buffer);
+                }
+            }
+        } finally {
+            buffer.clear();
+        }
+        return result;
+    }
+
+    // reused by the threads extracting plugins one after another
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(64 * 1024));
+
+    /**
+     * Lists the names of the files that this plugin extracts, relative to the target folder.
+     *
+     * @return a non-null list of names
+     * @throws IOException if the plugin cannot be read
+     */
+    public List<String> getEntryNames() throws IOException {
+        String prefix = CONTENT_DIR.substring(1) + "/";
+        try (ZipFile zip = new ZipFile(file)) {
+            return zip.stream()
+                    .filter(entry -> !entry.isDirectory() && entry.getName().startsWith(prefix))
+                    .map(entry -> entry.getName().substring(prefix.length()))
+                    .collect(Collectors.toList());
         }
     }
 
+    private static final String CONTENT_DIR = "/netbeans";
+
     public static List<Plugin> findPlugins(Function<String, File[]> engine) {
-        return ResourceFinder.findResources(List.of(new DesktopSearch(engine)));
+        return ParallelResourceFinder
+                .<Plugin>builder()
+                .finder(new DesktopSearch(engine))
+                .finder(new FileSystemSearch(FileSystemScanner.DEFAULT))
+                .key(Plugin::getFile)
+                .build()
+                .findResources();
     }
 
     @VisibleForTesting
@@ -79,6 +191,24 @@ public class Plugin {
                 .build();
     }
 
+    @VisibleForTesting
+    @lombok.RequiredArgsConstructor
+    static final class FileSystemSearch implements ResourceFinder<Plugin>, FileSystemScanner.Recognizer<Plugin> {
+
+        @lombok.NonNull
+        private final FileSystemScanner scanner;
+
+        @Override
+        public void addResourcesTo(@NonNull Consumer<? super Plugin> consumer) {
+            scanner.scan(this, consumer);
+        }
+
+        @Override
+        public @Nullable Plugin recognizeFile(@NonNull Path file) {
+            return NbmSupport.isNbm(file.toFile()) ? ofNbm(file.toFile()) : null;
+        }
+    }
+
     @lombok.Builder
     private static final class NbmSupport implements ResourceFinder<Plugin> {
 
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Keeps extracted plugins on disk so that they are decompressed only once.
+ * Entries are keyed by the content hash of their NBM and evicted in least-recently-used order
+ * when the cache exceeds its maximum size.
+ * Working dirs are populated from the cache by hard-linking jars, which are made read-only, and copying other files.
+ * Entries used as shared clusters are leased on disk so that other processes do not evict them while in use.
+ */
+@lombok.extern.java.Log
+public final class PluginCache {
+
+    public static final String DIR_PROPERTY = "beanzooka.plugins.cache.dir";
+    public static final String MAX_SIZE_PROPERTY = "beanzooka.plugins.cache.maxSize";
+    public static final long DEFAULT_MAX_SIZE = 1024L * 1024 * 1024;
+
+    public static final PluginCache DEFAULT = PluginCache
+            .builder()
+            .root(getDefaultRoot())
+            .maxSize(Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE))
+            .build();
+
+    private static Path getDefaultRoot() {
+        String dir = System.getProperty(DIR_PROPERTY);
+        return dir != null
+                ? Paths.get(dir)
+                : Paths.get(System.getProperty("user.home"), ".beanzooka", "cache", "plugins");
+    }
+
+    private static final String FILES_DIR = "files";
+    private static final String SIZE_FILE = "size";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String DELETED_SUFFIX = ".del";
+    private static final String LEASE_SUFFIX = ".lease";
+    private static final String LEASE_COMMENT = "Cluster referenced by ";
+
+    @lombok.Getter
+    private final Path root;
+
+    /**
+     * Maximum size of the cache in bytes, zero disables the cache.
+     */
+    @lombok.Getter
+    private final long maxSize;
+
+    private final Map<Stamp, String> keys = new ConcurrentHashMap<>();
+    private final Set<Path> shared = ConcurrentHashMap.newKeySet();
+    private final Map<Path, Integer> leases = new HashMap<>();
+
+    @lombok.Builder
+    private PluginCache(@NonNull Path root, long maxSize) {
+        this.root = root;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Extracts a plugin into a folder through the cache.
+     *
+     * @param plugin           a non-null plugin
+     * @param folder           a non-null target folder
+     * @param onEntryExtracted called with the size of each extracted file
+     * @throws IOException if the plugin cannot be read or extracted
+     */
+    public void extract(@NonNull Plugin plugin, @NonNull File folder, @NonNull LongConsumer onEntryExtracted) throws IOException {
+        extract(plugin, folder, name -> true, onEntryExtracted);
+    }
+
+    /**
+     * Extracts some entries of a plugin into a folder through the cache.
+     *
+     * @param plugin           a non-null plugin
+     * @param folder           a non-null target folder
+     * @param filter           selects the entries to extract by their name relative to the folder
+     * @param onEntryExtracted called with the size of each extracted file
+     * @throws IOException if the plugin cannot be read or extracted
+     */
+    public void extract(@NonNull Plugin plugin, @NonNull File folder, @NonNull Predicate<String> filter, @NonNull LongConsumer onEntryExtracted) throws IOException {
+        extract(plugin, folder, filter, ParallelCopy.getDefaultParallelism(), onEntryExtracted);
+    }
+
+    /**
+     * Extracts some entries of a plugin into a folder through the cache, linking the files with a given parallelism.
+     * A parallelism of 1 links the files in the calling thread.
+     *
+     * @param plugin           a non-null plugin
+     * @param folder           a non-null target folder
+     * @param filter           selects the entries to extract by their name relative to the folder
+     * @param parallelism      the number of threads used to link the files
+     * @param onEntryExtracted called with the size of each extracted file
+     * @throws IOException if the plugin cannot be read or extracted
+     */
+    public void extract(@NonNull Plugin plugin, @NonNull File folder, @NonNull Predicate<String> filter, int parallelism, @NonNull LongConsumer onEntryExtracted) throws IOException {
+        if (maxSize <= 0) {
+            plugin.extract(folder, filter, onEntryExtracted);
+            return;
+        }
+        Path entry = root.resolve(getKey(plugin.getFile().toPath()));
+        // the lease keeps concurrent extractions from evicting the entry while it is being linked
+        acquire(entry);
+        try {
+            boolean hit = load(plugin, entry, onEntryExtracted);
+            PathMatcher jars = entry.getFileSystem().getPathMatcher("glob:**.jar");
+            Util.linkAllInParallel(entry.resolve(FILES_DIR), folder.toPath(), jars, filter, parallelism, hit ? onEntryExtracted : size -> {
+            });
+        } finally {
+            release(entry);
+        }
+    }
+
+    /**
+     * Gets the extracted content of a plugin as a read-only cluster that can be shared by several sessions.
+     * Entries used as clusters are never evicted by this instance, even if the cache is disabled.
+     *
+     * @param plugin           a non-null plugin
+     * @param onEntryExtracted called with the size of each extracted file
+     * @return the cluster directory
+     * @throws IOException if the plugin cannot be read or extracted
+     */
+    @NonNull
+    public File getCluster(@NonNull Plugin plugin, @NonNull LongConsumer onEntryExtracted) throws IOException {
+        Path entry = root.resolve(getKey(plugin.getFile().toPath()));
+        shared.add(entry);
+        load(plugin, entry, onEntryExtracted);
+        return entry.resolve(FILES_DIR).toFile();
+    }
+
+    /**
+     * Gets the extracted content of a plugin as a read-only cluster referenced by a working dir.
+     * The entry is leased on disk to the current process and, once bound, to the session of the working dir
+     * so that no instance evicts it while one of them is running.
+     *
+     * @param plugin           a non-null plugin
+     * @param workingDir       a non-null working dir that references the cluster
+     * @param onEntryExtracted called with the size of each extracted file
+     * @return the cluster directory
+     * @throws IOException if the plugin cannot be read or extracted
+     * @see #bindSession(File, ProcessHandle)
+     */
+    @NonNull
+    public File getCluster(@NonNull Plugin plugin, @NonNull File workingDir, @NonNull LongConsumer onEntryExtracted) throws IOException {
+        String key = getKey(plugin.getFile().toPath());
+        Files.createDirectories(root);
+        ProcessLease.write(root.resolve(key + "-" + getLeaseId(workingDir) + LEASE_SUFFIX), LEASE_COMMENT + workingDir);
+        return getCluster(plugin, onEntryExtracted);
+    }
+
+    /**
+     * Adds the session launched from a working dir to the leases of the clusters it references.
+     *
+     * @param workingDir a non-null working dir
+     * @param session    the non-null process of the session
+     * @throws IOException if a lease cannot be updated
+     */
+    public void bindSession(@NonNull File workingDir, @NonNull ProcessHandle session) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (DirectoryStream<Path> leases = Files.newDirectoryStream(root, "*-" + getLeaseId(workingDir) + LEASE_SUFFIX)) {
+            for (Path lease : leases) {
+                ProcessLease.addSession(lease, session, LEASE_COMMENT + workingDir);
+            }
+        }
+    }
+
+    /**
+     * Removes all the entries of the cache that are not used as clusters.
+     *
+     * @throws IOException if an entry cannot be deleted
+     */
+    public synchronized void clear() throws IOException {
+        Set<String> leased = getLeasedKeys();
+        for (Path dir : listEntries()) {
+            if (!isLeased(dir, leased)) {
+                delete(dir);
+            }
+        }
+        keys.clear();
+    }
+
+    String getKey(Path nbm) throws IOException {
+        Stamp stamp = new Stamp(nbm.toAbsolutePath(), Files.size(nbm), Files.getLastModifiedTime(nbm).toMillis());
+        String result = keys.get(stamp);
+        if (result == null) {
+            result = hash(nbm);
+            keys.put(stamp, result);
+        }
+        return result;
+    }
+
+    private synchronized void acquire(Path entry) {
+        leases.merge(entry, 1, Integer::sum);
+    }
+
+    private synchronized void release(Path entry) {
+        leases.computeIfPresent(entry, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private boolean load(Plugin plugin, Path entry, LongConsumer onEntryExtracted) throws IOException {
+        if (Files.isDirectory(entry)) {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        }
+        fill(plugin, entry, onEntryExtracted);
+        evict(entry);
+        return false;
+    }
+
+    private void fill(Plugin plugin, Path entry, LongConsumer onEntryExtracted) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempDirectory(root, entry.getFileName() + TEMP_SUFFIX);
+        try {
+            Path files = Files.createDirectory(temp.resolve(FILES_DIR));
+            long[] size = {0};
+            plugin.extract(files.toFile(), bytes -> {
+                size[0] += bytes;
+                onEntryExtracted.accept(bytes);
+            });
+            Files.write(temp.resolve(SIZE_FILE), Long.toString(size[0]).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            Util.deleteAll(temp);
+            // another session may have filled the same entry concurrently
+            if (!Files.isDirectory(entry)) {
+                throw ex;
+            }
+        }
+    }
+
+    private synchronized void evict(Path keep) throws IOException {
+        Set<String> leased = getLeasedKeys();
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        for (Path dir : listEntries()) {
+            String name = dir.getFileName().toString();
+            if (name.contains(DELETED_SUFFIX)) {
+                delete(dir);
+            } else if (!name.contains(TEMP_SUFFIX)) {
+                Entry entry = new Entry(dir, readSize(dir), Files.getLastModifiedTime(dir).toMillis());
+                entries.add(entry);
+                total += entry.getSize();
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::getLastUsed));
+        for (Entry entry : entries) {
+            if (total <= maxSize) {
+                break;
+            }
+            if (!entry.getDir().equals(keep) && !isLeased(entry.getDir(), leased)) {
+                delete(entry.getDir());
+                total -= entry.getSize();
+            }
+        }
+    }
+
+    private boolean isLeased(Path dir, Set<String> leasedKeys) {
+        return shared.contains(dir) || leases.containsKey(dir) || leasedKeys.contains(dir.getFileName().toString());
+    }
+
+    // leases of other processes are files named after their entry; dead ones are deleted on the way
+    private Set<String> getLeasedKeys() throws IOException {
+        Set<String> result = new HashSet<>();
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> leaseFiles = Files.newDirectoryStream(root, "*" + LEASE_SUFFIX)) {
+                for (Path lease : leaseFiles) {
+                    String name = lease.getFileName().toString();
+                    if (ProcessLease.isAlive(lease)) {
+                        result.add(name.substring(0, name.indexOf('-')));
+                    } else {
+                        Files.deleteIfExists(lease);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String getLeaseId(File workingDir) {
+        byte[] digest = newDigest().digest(workingDir.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+        return toHex(digest).substring(0, 16);
+    }
+
+    private List<Path> listEntries() throws IOException {
+        List<Path> result = new ArrayList<>();
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+                dirs.forEach(result::add);
+            }
+        }
+        return result;
+    }
+
+    private static long readSize(Path dir) {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(dir.resolve(SIZE_FILE)), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException ex) {
+            log.log(Level.FINE, "Invalid cache entry " + dir, ex);
+            return 0;
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        // renaming first hides the entry from concurrent lookups
+        Path deleted = dir.getFileName().toString().contains(DELETED_SUFFIX)
+                ? dir
+                : Files.move(dir, dir.resolveSibling(dir.getFileName() + DELETED_SUFFIX + System.nanoTime()), StandardCopyOption.ATOMIC_MOVE);
+        Util.deleteAll(deleted);
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream stream = Files.newInputStream(file)) {
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder result = new StringBuilder();
+        for (byte b : bytes) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @lombok.Value
+    private static class Stamp {
+
+        Path file;
+        long size;
+        long lastModified;
+    }
+
+    @lombok.Value
+    private static class Entry {
+
+        Path dir;
+        long size;
+        long lastUsed;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.logging.Level;
+
+/**
+ * Reads and writes the files that tie a resource to the processes using it.
+ * A lease names its owner, the Beanzooka process that created it, and optionally the session launched from it.
+ * It stays alive as long as one of them is running, so that a resource outlives a crash of its owner
+ * while its session is still running.
+ */
+@lombok.experimental.UtilityClass
+@lombok.extern.java.Log
+class ProcessLease {
+
+    private static final String PID_KEY = "pid";
+    private static final String START_KEY = "start";
+    private static final String SESSION_PID_KEY = "session.pid";
+    private static final String SESSION_START_KEY = "session.start";
+    private static final Duration START_TOLERANCE = Duration.ofSeconds(1);
+
+    void write(Path file, long ownerPid, @Nullable Instant ownerStart, String comment) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(PID_KEY, Long.toString(ownerPid));
+        if (ownerStart != null) {
+            properties.setProperty(START_KEY, ownerStart.toString());
+        }
+        store(file, properties, comment);
+    }
+
+    void write(Path file, String comment) throws IOException {
+        ProcessHandle current = ProcessHandle.current();
+        write(file, current.pid(), current.info().startInstant().orElse(null), comment);
+    }
+
+    /**
+     * Adds the session launched from a resource to its lease.
+     */
+    void addSession(Path file, ProcessHandle session, String comment) throws IOException {
+        addSession(file, session.pid(), session.info().startInstant().orElse(null), comment);
+    }
+
+    void addSession(Path file, long sessionPid, @Nullable Instant sessionStart, String comment) throws IOException {
+        Properties properties = load(file);
+        properties.setProperty(SESSION_PID_KEY, Long.toString(sessionPid));
+        if (sessionStart != null) {
+            properties.setProperty(SESSION_START_KEY, sessionStart.toString());
+        }
+        store(file, properties, comment);
+    }
+
+    boolean isAlive(Path file) {
+        try {
+            Properties properties = load(file);
+            return isAlive(properties, PID_KEY, START_KEY) || isAlive(properties, SESSION_PID_KEY, SESSION_START_KEY);
+        } catch (IOException | NumberFormatException | DateTimeParseException ex) {
+            log.log(Level.FINE, "Invalid lease " + file, ex);
+            // unreadable leases may be being written
+            return true;
+        }
+    }
+
+    private boolean isAlive(Properties properties, String pidKey, String startKey) {
+        String pid = properties.getProperty(pidKey);
+        if (pid == null) {
+            return false;
+        }
+        Optional<Instant> start = Optional.ofNullable(properties.getProperty(startKey)).map(Instant::parse);
+        // a different start time means that the pid has been reused
+        return ProcessHandle.of(Long.parseLong(pid))
+                .filter(ProcessHandle::isAlive)
+                .map(handle -> !start.isPresent() || handle.info().startInstant().map(actual -> isSameInstant(start.get(), actual)).orElse(true))
+                .orElse(false);
+    }
+
+    // start times are derived from the clock ticks of the OS and may vary slightly between calls
+    private boolean isSameInstant(Instant expected, Instant actual) {
+        return Duration.between(expected, actual).abs().compareTo(START_TOLERANCE) <= 0;
+    }
+
+    private Properties load(Path file) throws IOException {
+        Properties result = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            result.load(reader);
+        }
+        return result;
+    }
+
+    private void store(Path file, Properties properties, String comment) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, comment);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
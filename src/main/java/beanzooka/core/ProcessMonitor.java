@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Samples the CPU usage, resident memory and thread count of process trees on a single shared thread.
+ * Values are read from procfs on Linux; other platforms only get the CPU usage through {@link ProcessHandle.Info}.
+ */
+@lombok.extern.java.Log
+public final class ProcessMonitor {
+
+    public static final String PERIOD_PROPERTY = "beanzooka.monitor.period";
+
+    public static final int HISTORY_SIZE = 60;
+
+    public static final ProcessMonitor DEFAULT = new ProcessMonitor(Duration.ofMillis(Long.getLong(PERIOD_PROPERTY, 2000)));
+
+    private static final Path PROC = Paths.get("/proc");
+
+    // USER_HZ is 100 on all mainstream Linux architectures
+    private static final long NANOS_PER_TICK = TimeUnit.SECONDS.toNanos(1) / 100;
+
+    private final Map<ProcessHandle, Watch> watches = new ConcurrentHashMap<>();
+
+    ProcessMonitor(Duration period) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(Util.daemonThreadFactory("beanzooka-monitor"));
+        executor.scheduleWithFixedDelay(this::sampleAll, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Samples a process and its descendants until it exits.
+     *
+     * @param root     a non-null process
+     * @param onSample a non-null consumer called from the monitor thread after each sample
+     * @return a non-null watch that holds the recent samples
+     */
+    public @NonNull Watch watch(@NonNull ProcessHandle root, @NonNull Consumer<? super Sample> onSample) {
+        Watch result = new Watch(root, onSample);
+        watches.put(root, result);
+        if (!root.equals(ProcessHandle.current())) {
+            root.onExit().thenRun(() -> watches.remove(root));
+        }
+        return result;
+    }
+
+    /**
+     * Samples a process given by its pid and its descendants until it exits.
+     *
+     * @param pid      the pid of the process
+     * @param onSample a non-null consumer called from the monitor thread after each sample
+     * @return a non-null watch, empty if the process does not exist
+     */
+    public @NonNull Optional<Watch> watchPid(long pid, @NonNull Consumer<? super Sample> onSample) {
+        return ProcessHandle.of(pid).map(root -> watch(root, onSample));
+    }
+
+    private void sampleAll() {
+        for (Watch watch : watches.values()) {
+            try {
+                watch.sample();
+            } catch (RuntimeException ex) {
+                log.log(Level.WARNING, "Failed to sample process " + watch.root.pid(), ex);
+            }
+        }
+    }
+
+    @lombok.Value
+    public static class Sample {
+
+        /**
+         * CPU time used since the previous sample as a percentage of one processor, so that it may exceed 100.
+         */
+        double cpuPercent;
+
+        /**
+         * Resident memory in bytes or -1 if unknown.
+         */
+        long residentBytes;
+
+        /**
+         * Number of threads or -1 if unknown.
+         */
+        int threadCount;
+    }
+
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public static final class Watch {
+
+        private final ProcessHandle root;
+        private final Consumer<? super Sample> onSample;
+        private final Deque<Sample> history = new ArrayDeque<>();
+        private Map<Long, Long> previousCpu = null;
+        private long previousTime;
+
+        public synchronized @Nullable Sample getLatest() {
+            return history.peekLast();
+        }
+
+        /**
+         * Gets the recent samples, at most {@link #HISTORY_SIZE}, from the oldest to the latest.
+         */
+        public synchronized @NonNull List<Sample> getHistory() {
+            return new ArrayList<>(history);
+        }
+
+        void sample() {
+            long now = System.nanoTime();
+            Map<Long, Long> cpu = new HashMap<>();
+            long residentBytes = 0;
+            int threadCount = 0;
+            boolean procfs = true;
+            for (ProcessHandle handle : Stream.concat(Stream.of(root), root.descendants()).collect(Collectors.toList())) {
+                Usage usage = readUsage(handle);
+                if (usage != null) {
+                    cpu.put(handle.pid(), usage.getCpuNanos());
+                    residentBytes += usage.getResidentBytes();
+                    threadCount += usage.getThreadCount();
+                    procfs &= usage.getThreadCount() >= 0;
+                }
+            }
+            Sample sample;
+            synchronized (this) {
+                sample = new Sample(getCpuPercent(cpu, now), procfs ? residentBytes : -1, procfs ? threadCount : -1);
+                previousCpu = cpu;
+                previousTime = now;
+                history.addLast(sample);
+                if (history.size() > HISTORY_SIZE) {
+                    history.removeFirst();
+                }
+            }
+            onSample.accept(sample);
+        }
+
+        private double getCpuPercent(Map<Long, Long> cpu, long now) {
+            if (previousCpu == null || now == previousTime) {
+                return 0;
+            }
+            long used = 0;
+            for (Map.Entry<Long, Long> entry : cpu.entrySet()) {
+                // a process that appeared since the previous sample used all its CPU time in between
+                used += Math.max(0, entry.getValue() - previousCpu.getOrDefault(entry.getKey(), 0L));
+            }
+            return 100.0 * used / (now - previousTime);
+        }
+    }
+
+    @lombok.Value
+    static class Usage {
+
+        long cpuNanos;
+
+        long residentBytes;
+
+        int threadCount;
+    }
+
+    private static @Nullable Usage readUsage(ProcessHandle handle) {
+        Path dir = PROC.resolve(Long.toString(handle.pid()));
+        if (Files.isDirectory(dir)) {
+            try {
+                Usage stat = parseStat(new String(Files.readAllBytes(dir.resolve("stat")), StandardCharsets.UTF_8));
+                long residentBytes = parseResidentBytes(Files.readAllLines(dir.resolve("status"), StandardCharsets.UTF_8));
+                return stat != null ? new Usage(stat.getCpuNanos(), residentBytes, stat.getThreadCount()) : null;
+            } catch (IOException ex) {
+                // the process has just exited
+                return null;
+            }
+        }
+        return handle.info().totalCpuDuration().map(duration -> new Usage(duration.toNanos(), 0, -1)).orElse(null);
+    }
+
+    static @Nullable Usage parseStat(String stat) {
+        // pid (comm) state ppid ... utime(14) stime(15) ... num_threads(20) ...
+        // comm may contain spaces and parentheses so fields are counted from the last one
+        int end = stat.lastIndexOf(')');
+        if (end == -1) {
+            return null;
+        }
+        String[] fields = stat.substring(end + 1).trim().split("\\s+");
+        try {
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+            return new Usage(ticks * NANOS_PER_TICK, 0, Integer.parseInt(fields[17]));
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+            log.log(Level.FINE, "Invalid stat ''{0}''", stat);
+            return null;
+        }
+    }
+
+    static long parseResidentBytes(List<String> status) {
+        for (String line : status) {
+            // VmRSS:	  123456 kB
+            if (line.startsWith("VmRSS:")) {
+                String[] tokens = line.substring("VmRSS:".length()).trim().split("\\s+");
+                try {
+                    return Long.parseLong(tokens[0]) * 1024;
+                } catch (NumberFormatException ex) {
+                    log.log(Level.FINE, "Invalid status line ''{0}''", line);
+                }
+            }
+        }
+        // kernel threads and zombies have no VmRSS
+        return 0;
+    }
+}
@@ -18,6 +18,7 @@ package beanzooka.core;
 
 import org.jspecify.annotations.Nullable;
 
+import java.io.File;
 import java.util.List;
 
 /**
@@ -50,9 +51,16 @@ public class Resources {
     @lombok.Builder.Default
     boolean tempUserDirSelected = true;
 
+    @Nullable
+    File tempBaseDir;
+
     @Nullable
     Integer selectedUserDirIndex;
 
     @lombok.Singular
     List<Integer> selectedPluginIndices;
+
+    boolean sharedPluginsSelected;
+
+    boolean flightRecordingSelected;
 }
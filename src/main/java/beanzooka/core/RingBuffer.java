@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.nio.charset.Charset;
+
+/**
+ * Fixed-size byte buffer that keeps only the last bytes written to it.
+ */
+public final class RingBuffer {
+
+    private final byte[] data;
+    private int start;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.data = new byte[capacity];
+    }
+
+    public int getCapacity() {
+        return data.length;
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public synchronized void write(@NonNull byte[] bytes, int offset, int length) {
+        if (length >= data.length) {
+            System.arraycopy(bytes, offset + length - data.length, data, 0, data.length);
+            start = 0;
+            size = data.length;
+            return;
+        }
+        int end = (start + size) % data.length;
+        int first = Math.min(length, data.length - end);
+        System.arraycopy(bytes, offset, data, end, first);
+        System.arraycopy(bytes, offset + first, data, 0, length - first);
+        int overflow = size + length - data.length;
+        if (overflow > 0) {
+            start = (start + overflow) % data.length;
+            size = data.length;
+        } else {
+            size += length;
+        }
+    }
+
+    public synchronized @NonNull byte[] toByteArray() {
+        byte[] result = new byte[size];
+        int first = Math.min(size, data.length - start);
+        System.arraycopy(data, start, result, 0, first);
+        System.arraycopy(data, 0, result, first, size - first);
+        return result;
+    }
+
+    public @NonNull String toString(@NonNull Charset charset) {
+        return new String(toByteArray(), charset);
+    }
+
+    public synchronized void clear() {
+        start = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Launches sessions and tracks them through {@link Process#onExit()}
+ * so that no thread is blocked while a session is running.
+ * The standard streams of all processes are drained by a single shared reader.
+ */
+@lombok.extern.java.Log
+public final class SessionEngine {
+
+    public static final SessionEngine DEFAULT = new SessionEngine();
+
+    private static final long DRAIN_PERIOD_IN_MILLIS = 100;
+    private static final int PREPARE_THREADS = 2;
+
+    private final Map<Process, Drain[]> running = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(Util.daemonThreadFactory("beanzooka-session"));
+    private final ExecutorService preparer = Executors.newFixedThreadPool(PREPARE_THREADS, Util.daemonThreadFactory("beanzooka-prepare"));
+    // speculative preparations must never delay the ones requested by the user
+    private final ExecutorService backgroundPreparer = Executors.newSingleThreadExecutor(newLowPriorityThreadFactory("beanzooka-prepare-background"));
+    private final byte[] buffer = new byte[8192];
+
+    private SessionEngine() {
+        executor.scheduleWithFixedDelay(this::drainAll, DRAIN_PERIOD_IN_MILLIS, DRAIN_PERIOD_IN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Initializes the working dir of a session in background.
+     * Cancelling the returned future interrupts the initialization.
+     *
+     * @param configuration a non-null configuration
+     * @param listener      a non-null listener notified from the background thread
+     * @return a non-null future completed with the initialized working dir
+     */
+    public @NonNull CompletableFuture<File> prepare(@NonNull Configuration configuration, @NonNull LaunchListener listener) {
+        return prepare(preparer, configuration, listener);
+    }
+
+    /**
+     * Initializes the working dir of a session that may be launched later.
+     * Such preparations run one at a time on a low priority thread, apart from the ones of {@link #prepare(Configuration, LaunchListener)}.
+     *
+     * @param configuration a non-null configuration
+     * @param listener      a non-null listener notified from the background thread
+     * @return a non-null future completed with the initialized working dir
+     */
+    public @NonNull CompletableFuture<File> prepareInBackground(@NonNull Configuration configuration, @NonNull LaunchListener listener) {
+        return prepare(backgroundPreparer, configuration, listener);
+    }
+
+    private CompletableFuture<File> prepare(ExecutorService executor, Configuration configuration, LaunchListener listener) {
+        InterruptibleFuture<File> result = new InterruptibleFuture<>();
+        result.setTask(executor.submit(() -> {
+            try {
+                File workingDir = configuration.init(listener);
+                if (!result.complete(workingDir)) {
+                    // cancelled too late to interrupt the initialization
+                    TempDirs.DEFAULT.delete(workingDir);
+                }
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }));
+        return result;
+    }
+
+    /**
+     * Starts a session and returns its exit value asynchronously.
+     *
+     * @param configuration a non-null configuration
+     * @param workingDir    a non-null initialized working dir
+     * @param output        a non-null buffer that receives the tail of stdout
+     * @param error         a non-null buffer that receives the tail of stderr
+     * @return a non-null future completed with the exit value of the process
+     * @throws IOException if the process cannot be started
+     */
+    public @NonNull CompletableFuture<Integer> launch(@NonNull Configuration configuration, @NonNull File workingDir,
+                                                      @NonNull RingBuffer output, @NonNull RingBuffer error) throws IOException {
+        return launch(configuration, workingDir, output, error, process -> {
+        });
+    }
+
+    /**
+     * Starts a session and returns its exit value asynchronously.
+     *
+     * @param configuration a non-null configuration
+     * @param workingDir    a non-null initialized working dir
+     * @param output        a non-null buffer that receives the tail of stdout
+     * @param error         a non-null buffer that receives the tail of stderr
+     * @param onStarted     a non-null consumer of the started process, called before this method returns
+     * @return a non-null future completed with the exit value of the process
+     * @throws IOException if the process cannot be started
+     */
+    public @NonNull CompletableFuture<Integer> launch(@NonNull Configuration configuration, @NonNull File workingDir,
+                                                      @NonNull RingBuffer output, @NonNull RingBuffer error,
+                                                      @NonNull Consumer<? super ProcessHandle> onStarted) throws IOException {
+        Process process = configuration.start(workingDir);
+        onStarted.accept(process.toHandle());
+        running.put(process, new Drain[]{new Drain(process.getInputStream(), output), new Drain(process.getErrorStream(), error)});
+        return process.onExit().thenApplyAsync(this::onExit, executor);
+    }
+
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    private int onExit(Process process) {
+        Drain[] drains = running.remove(process);
+        if (drains != null) {
+            for (Drain drain : drains) {
+                drain.pump(buffer);
+                drain.close();
+            }
+        }
+        return process.exitValue();
+    }
+
+    private void drainAll() {
+        for (Drain[] drains : running.values()) {
+            for (Drain drain : drains) {
+                drain.pump(buffer);
+            }
+        }
+    }
+
+    private static ThreadFactory newLowPriorityThreadFactory(String name) {
+        ThreadFactory factory = Util.daemonThreadFactory(name);
+        return runnable -> {
+            Thread result = factory.newThread(runnable);
+            result.setPriority(Thread.MIN_PRIORITY);
+            return result;
+        };
+    }
+
+    private static final class InterruptibleFuture<T> extends CompletableFuture<T> {
+
+        private volatile Future<?> task;
+
+        void setTask(Future<?> task) {
+            this.task = task;
+            if (isCancelled()) {
+                task.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            Future<?> current = task;
+            if (current != null) {
+                current.cancel(true);
+            }
+            return result;
+        }
+    }
+
+    @lombok.RequiredArgsConstructor
+    private static final class Drain {
+
+        private final InputStream stream;
+        private final RingBuffer target;
+
+        // only reads what is available so that the shared reader never blocks
+        void pump(byte[] buffer) {
+            try {
+                int available;
+                while ((available = stream.available()) > 0) {
+                    int count = stream.read(buffer, 0, Math.min(available, buffer.length));
+                    if (count < 0) {
+                        return;
+                    }
+                    target.write(buffer, 0, count);
+                }
+            } catch (IOException ex) {
+                log.log(Level.FINE, "Failed to drain stream", ex);
+            }
+        }
+
+        void close() {
+            try {
+                stream.close();
+            } catch (IOException ex) {
+                log.log(Level.FINE, "Failed to close stream", ex);
+            }
+        }
+    }
+}
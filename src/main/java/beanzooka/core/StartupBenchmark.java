@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the startup time of a configuration by launching it several times in a row.
+ * Each run initializes a new working dir, starts the app, waits for a line of its log file
+ * that matches {@link #getStartupPattern()} and then stops the process tree.
+ * Runs are sequential so that they do not compete for the same resources.
+ * Note that a user dir that is neither temporary nor cloned is reused by every run.
+ */
+@lombok.Value
+@lombok.Builder
+@lombok.extern.java.Log
+public class StartupBenchmark {
+
+    /**
+     * Logged by the NetBeans platform once the startup tasks are done.
+     */
+    public static final String DEFAULT_STARTUP_PATTERN = "Warmup finished";
+
+    private static final long POLL_PERIOD_IN_MILLIS = 20;
+    private static final long STOP_TIMEOUT_IN_MILLIS = 10_000;
+
+    @NonNull
+    Configuration configuration;
+
+    @lombok.Builder.Default
+    int runs = 5;
+
+    /**
+     * Number of runs done before the measured ones and excluded from the statistics.
+     */
+    int warmups;
+
+    @lombok.Builder.Default
+    @NonNull
+    Pattern startupPattern = Pattern.compile(DEFAULT_STARTUP_PATTERN);
+
+    @lombok.Builder.Default
+    @NonNull
+    Duration timeout = Duration.ofMinutes(5);
+
+    public @NonNull Result run(@NonNull Consumer<? super Run> onRun) throws InterruptedException {
+        List<Run> result = new ArrayList<>();
+        for (int i = 0; i < warmups + runs; i++) {
+            Run run = runOnce(i, i < warmups);
+            onRun.accept(run);
+            result.add(run);
+        }
+        return new Result(result);
+    }
+
+    private Run runOnce(int index, boolean warmup) throws InterruptedException {
+        long start = System.nanoTime();
+        File workingDir;
+        try {
+            workingDir = configuration.init(LaunchListener.NO_OP);
+        } catch (IOException ex) {
+            return new Run(index, warmup, toMillis(System.nanoTime() - start), -1, ex.toString());
+        }
+        long initMillis = toMillis(System.nanoTime() - start);
+        try {
+            long startupMillis = measureStartup(workingDir);
+            return new Run(index, warmup, initMillis, startupMillis, null);
+        } catch (IOException ex) {
+            return new Run(index, warmup, initMillis, -1, ex.toString());
+        } finally {
+            if (TempDirs.DEFAULT.isTemporary(workingDir)) {
+                // waits for the deletion so that it does not overlap the next run
+                TempDirs.DEFAULT.delete(workingDir).join();
+            }
+        }
+    }
+
+    private long measureStartup(File workingDir) throws IOException, InterruptedException {
+        // a cloned or reused user dir already holds the log of a previous run
+        LogWatcher watcher = LogWatcher.ofAppendedLines(UserDir.resolveLogFile(workingDir), startupPattern);
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        Process process = configuration
+                .newProcessBuilder(workingDir)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (!watcher.poll()) {
+                if (!process.isAlive() && !watcher.poll()) {
+                    throw new IOException("Process exited with value " + process.exitValue() + " before startup completed");
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IOException("Startup not completed after " + timeout.getSeconds() + "s");
+                }
+                TimeUnit.MILLISECONDS.sleep(POLL_PERIOD_IN_MILLIS);
+            }
+            return toMillis(System.nanoTime() - start);
+        } finally {
+            stop(process);
+        }
+    }
+
+    private static void stop(Process process) throws InterruptedException {
+        // launchers usually fork the actual VM
+        List<ProcessHandle> tree = new ArrayList<>();
+        process.descendants().forEach(tree::add);
+        tree.add(process.toHandle());
+        tree.forEach(ProcessHandle::destroy);
+        if (!process.waitFor(STOP_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS)) {
+            log.log(Level.WARNING, "Process {0} did not stop, killing it", process.pid());
+        }
+        tree.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @lombok.Value
+    public static class Run {
+
+        int index;
+
+        boolean warmup;
+
+        long initMillis;
+
+        /**
+         * Time between the start of the process and the detection of the startup pattern or -1 if the run failed.
+         */
+        long startupMillis;
+
+        @Nullable
+        String error;
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    @lombok.Value
+    public static class Result {
+
+        List<Run> runs;
+
+        public int getFailedCount() {
+            return (int) runs.stream().filter(run -> !run.isWarmup() && !run.isSuccess()).count();
+        }
+
+        public @NonNull Stats getInitStats() {
+            return getStats(Run::getInitMillis);
+        }
+
+        public @NonNull Stats getStartupStats() {
+            return getStats(Run::getStartupMillis);
+        }
+
+        private Stats getStats(ToLongFunction<Run> toMillis) {
+            return Stats.of(runs.stream().filter(run -> !run.isWarmup() && run.isSuccess()).mapToLong(toMillis).toArray());
+        }
+    }
+
+    @lombok.Value
+    public static class Stats {
+
+        int count;
+
+        long min;
+
+        long median;
+
+        long p95;
+
+        /**
+         * Computes the statistics of some values using the nearest-rank method.
+         *
+         * @param values a non-null array of values
+         * @return non-null statistics, filled with zeros if there is no value
+         */
+        public static @NonNull Stats of(long @NonNull [] values) {
+            if (values.length == 0) {
+                return new Stats(0, 0, 0, 0);
+            }
+            long[] sorted = values.clone();
+            Arrays.sort(sorted);
+            return new Stats(sorted.length, sorted[0], percentile(sorted, 50), percentile(sorted, 95));
+        }
+
+        private static long percentile(long[] sorted, int percent) {
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    // reads the log file incrementally since the app appends to it while starting
+    private static final class LogWatcher {
+
+        static LogWatcher ofAppendedLines(File file, Pattern pattern) throws IOException {
+            return file.isFile()
+                    ? new LogWatcher(file, pattern, getFileKey(file), file.length())
+                    : new LogWatcher(file, pattern, null, 0);
+        }
+
+        private final File file;
+        private final Pattern pattern;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private final byte[] buffer = new byte[8192];
+        private @Nullable Object fileKey;
+        private long offset;
+
+        private LogWatcher(File file, Pattern pattern, @Nullable Object fileKey, long offset) {
+            this.file = file;
+            this.pattern = pattern;
+            this.fileKey = fileKey;
+            this.offset = offset;
+        }
+
+        boolean poll() throws IOException {
+            if (!file.isFile()) {
+                return false;
+            }
+            Object currentKey;
+            try {
+                currentKey = getFileKey(file);
+            } catch (NoSuchFileException ex) {
+                // being rotated
+                return false;
+            }
+            try (RandomAccessFile reader = new RandomAccessFile(file, "r")) {
+                if (reader.length() < offset || (fileKey != null && !fileKey.equals(currentKey))) {
+                    // rotated
+                    offset = 0;
+                    line.reset();
+                }
+                fileKey = currentKey;
+                reader.seek(offset);
+                int count;
+                while ((count = reader.read(buffer)) > 0) {
+                    offset += count;
+                    for (int i = 0; i < count; i++) {
+                        if (buffer[i] == '\n') {
+                            if (pattern.matcher(new String(line.toByteArray(), Charset.defaultCharset())).find()) {
+                                return true;
+                            }
+                            line.reset();
+                        } else {
+                            line.write(buffer[i]);
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        // identifies the file across renames where supported, such as the inode on Unix
+        private static @Nullable Object getFileKey(File file) throws IOException {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.logging.Level;
+
+/**
+ * Reads the load of the machine from procfs, falling back to the platform MXBean when not available.
+ */
+@lombok.experimental.UtilityClass
+@lombok.extern.java.Log
+class SystemLoad {
+
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static final Path LOADAVG = Paths.get("/proc/loadavg");
+
+    /**
+     * Gets the memory available for new processes without swapping.
+     *
+     * @return the available memory in bytes, empty if unknown
+     */
+    OptionalLong getAvailableMemory() {
+        return Files.isReadable(MEMINFO) ? parseAvailableMemory(readLines(MEMINFO)) : OptionalLong.empty();
+    }
+
+    /**
+     * Gets the system load average for the last minute.
+     *
+     * @return the load average, empty if unknown
+     */
+    OptionalDouble getLoadAverage() {
+        if (Files.isReadable(LOADAVG)) {
+            List<String> lines = readLines(LOADAVG);
+            if (!lines.isEmpty()) {
+                return parseLoadAverage(lines.get(0));
+            }
+        }
+        double result = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        return result >= 0 ? OptionalDouble.of(result) : OptionalDouble.empty();
+    }
+
+    int getProcessorCount() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    OptionalLong parseAvailableMemory(List<String> meminfo) {
+        for (String line : meminfo) {
+            // MemAvailable:    1234567 kB
+            if (line.startsWith("MemAvailable:")) {
+                String[] tokens = line.substring("MemAvailable:".length()).trim().split("\\s+");
+                try {
+                    return OptionalLong.of(Long.parseLong(tokens[0]) * 1024);
+                } catch (NumberFormatException ex) {
+                    log.log(Level.FINE, "Invalid meminfo line ''{0}''", line);
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    OptionalDouble parseLoadAverage(String loadavg) {
+        // 0.52 0.58 0.59 1/467 12345
+        String[] tokens = loadavg.trim().split("\\s+");
+        try {
+            return OptionalDouble.of(Double.parseDouble(tokens[0]));
+        } catch (NumberFormatException ex) {
+            log.log(Level.FINE, "Invalid loadavg ''{0}''", loadavg);
+            return OptionalDouble.empty();
+        }
+    }
+
+    private List<String> readLines(Path file) {
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            log.log(Level.FINE, "Failed to read " + file, ex);
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Creates and deletes the temporary dirs used as working dirs.
+ * Each dir holds a marker file naming the process that owns it and the session launched from it
+ * so that dirs left by a crashed process can be reaped later on, once their session is over too.
+ * Dirs of {@link #DEFAULT} still alive at exit are deleted in parallel by a single shutdown hook.
+ */
+@lombok.extern.java.Log
+public final class TempDirs {
+
+    static final String MARKER_FILE = ".beanzooka.lock";
+    private static final String MARKER_COMMENT = "Owner of this temporary dir";
+
+    public static final String RESERVE_PROPERTY = "beanzooka.tempDirs.reserve";
+    public static final long DEFAULT_RESERVE = 256L * 1024 * 1024;
+
+    private static final Set<Path> UNWRITABLE_ROOTS = ConcurrentHashMap.newKeySet();
+
+    private static final int DELETE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    public static final TempDirs DEFAULT = newDefault();
+
+    private static TempDirs newDefault() {
+        TempDirs result = new TempDirs(ProcessHandle.current().pid(), ProcessHandle.current().info().startInstant().orElse(null));
+        Runtime.getRuntime().addShutdownHook(new Thread(result::deleteAlive));
+        return result;
+    }
+
+    private final long ownerPid;
+    private final @Nullable Instant ownerStart;
+    private final Set<File> alive = ConcurrentHashMap.newKeySet();
+    private final Set<Path> reapedRoots = ConcurrentHashMap.newKeySet();
+    private final Map<FileStore, Long> reservations = new HashMap<>();
+    private final ExecutorService deleter = Executors.newFixedThreadPool(DELETE_THREADS, Util.daemonThreadFactory("beanzooka-delete"));
+
+    TempDirs(long ownerPid, @Nullable Instant ownerStart) {
+        this.ownerPid = ownerPid;
+        this.ownerStart = ownerStart;
+    }
+
+    @NonNull
+    public static Path getDefaultRoot() {
+        return Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Checks if a root has enough free space for a new dir.
+     * A reserve is kept on top of the required bytes since sessions write their caches and logs.
+     *
+     * @param root          the candidate parent of the dir
+     * @param requiredBytes the bytes copied in the dir at creation
+     * @return true if the root is a writable dir with enough free space
+     */
+    public static boolean hasRoom(@NonNull Path root, long requiredBytes) {
+        if (!isWritableDir(root)) {
+            return false;
+        }
+        try {
+            return hasRoom(root, Files.getFileStore(root), requiredBytes);
+        } catch (IOException ex) {
+            log.log(Level.WARNING, "Failed to get free space of ''" + root + "''", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Reserves free space in a root for a new dir.
+     * Reservations on the same file store add up until they are closed,
+     * so that concurrent dirs cannot together exceed its free space.
+     *
+     * @param root          the candidate parent of the dir
+     * @param requiredBytes the bytes copied in the dir at creation
+     * @return a reservation to close once the dir is filled, null if the root has no room
+     */
+    @Nullable
+    public Reservation reserve(@NonNull Path root, long requiredBytes) {
+        if (!isWritableDir(root)) {
+            return null;
+        }
+        try {
+            FileStore store = Files.getFileStore(root);
+            synchronized (reservations) {
+                if (!hasRoom(root, store, reservations.getOrDefault(store, 0L) + requiredBytes)) {
+                    return null;
+                }
+                reservations.merge(store, requiredBytes, Long::sum);
+            }
+            return new Reservation(store, requiredBytes);
+        } catch (IOException ex) {
+            log.log(Level.WARNING, "Failed to get free space of ''" + root + "''", ex);
+            return null;
+        }
+    }
+
+    private static boolean isWritableDir(Path root) {
+        if (!Files.isDirectory(root) || !Files.isWritable(root)) {
+            // checked on every launch, so only the first failure is worth a warning
+            log.log(UNWRITABLE_ROOTS.add(root.toAbsolutePath()) ? Level.WARNING : Level.FINE, "Base dir ''{0}'' is not writable, falling back to default temp dir", root);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean hasRoom(Path root, FileStore store, long requiredBytes) throws IOException {
+        long budget = requiredBytes + Long.getLong(RESERVE_PROPERTY, DEFAULT_RESERVE);
+        long usable = store.getUsableSpace();
+        if (usable < budget) {
+            log.log(Level.INFO, "Base dir ''{0}'' has {1} bytes left out of {2} required, falling back to default temp dir", new Object[]{root, usable, budget});
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a temporary dir owned by the current process.
+     * Orphaned dirs of the same root are reaped in background the first time it is used.
+     *
+     * @param root   the parent of the dir, null for the default temp dir
+     * @param prefix the prefix of the name of the dir
+     * @return a new empty dir, except for its marker file
+     * @throws IOException if the dir cannot be created
+     */
+    @NonNull
+    public File create(@Nullable Path root, @NonNull String prefix) throws IOException {
+        Path parent = root != null ? root : getDefaultRoot();
+        Path result = Files.createTempDirectory(parent, prefix);
+        mark(result.toFile());
+        alive.add(result.toFile());
+        reapInBackground(parent);
+        return result.toFile();
+    }
+
+    public boolean isTemporary(@Nullable File dir) {
+        return dir != null && alive.contains(dir);
+    }
+
+    /**
+     * Detaches a temporary dir from this instance so that it outlives the current process.
+     * The dir is neither deleted at exit nor reaped later on.
+     *
+     * @param dir a dir created by this instance
+     * @throws IOException if its marker cannot be deleted
+     */
+    public void keep(@NonNull File dir) throws IOException {
+        if (alive.remove(dir)) {
+            Files.deleteIfExists(dir.toPath().resolve(MARKER_FILE));
+        }
+    }
+
+    /**
+     * Deletes a temporary dir in background, its subtrees being deleted in parallel.
+     *
+     * @param dir a dir created by this instance
+     * @return a future completed when the dir is deleted
+     */
+    @NonNull
+    public CompletableFuture<Void> delete(@NonNull File dir) {
+        if (!alive.remove(dir)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return deleteInParallel(dir.toPath());
+    }
+
+    /**
+     * Adds the session launched from a dir to its marker so that the dir is not reaped while the session is running,
+     * even if its owner is gone.
+     *
+     * @param dir     a non-null dir, ignored if it has no marker
+     * @param session the non-null process of the session
+     * @throws IOException if the marker cannot be updated
+     */
+    public void bindSession(@NonNull File dir, @NonNull ProcessHandle session) throws IOException {
+        bindSession(dir, session.pid(), session.info().startInstant().orElse(null));
+    }
+
+    void bindSession(File dir, long sessionPid, @Nullable Instant sessionStart) throws IOException {
+        Path marker = dir.toPath().resolve(MARKER_FILE);
+        if (Files.isRegularFile(marker)) {
+            ProcessLease.addSession(marker, sessionPid, sessionStart, MARKER_COMMENT);
+        }
+    }
+
+    /**
+     * Reaps the orphaned dirs of a root on a low-priority thread, once per root.
+     *
+     * @param root a non-null root
+     */
+    public void reapInBackground(@NonNull Path root) {
+        if (reapedRoots.add(root.toAbsolutePath())) {
+            Thread reaper = new Thread(() -> reapQuietly(root), "beanzooka-reaper");
+            reaper.setDaemon(true);
+            reaper.setPriority(Thread.MIN_PRIORITY);
+            reaper.start();
+        }
+    }
+
+    int reap(Path root) throws IOException {
+        int result = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                Path marker = dir.resolve(MARKER_FILE);
+                if (Files.isRegularFile(marker) && !ProcessLease.isAlive(marker)) {
+                    log.log(Level.INFO, "Reaping orphaned dir {0}", dir);
+                    Util.deleteAll(dir);
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void reapQuietly(Path root) {
+        try {
+            reap(root);
+        } catch (IOException ex) {
+            log.log(Level.WARNING, "Cannot reap " + root, ex);
+        }
+    }
+
+    void mark(File dir) throws IOException {
+        ProcessLease.write(dir.toPath().resolve(MARKER_FILE), ownerPid, ownerStart, MARKER_COMMENT);
+    }
+
+    private CompletableFuture<Void> deleteInParallel(Path dir) {
+        List<CompletableFuture<Void>> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                children.add(CompletableFuture.runAsync(() -> deleteQuietly(child), deleter));
+            }
+        } catch (IOException ex) {
+            log.log(Level.FINE, "Cannot list " + dir, ex);
+        }
+        return CompletableFuture
+                .allOf(children.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> deleteQuietly(dir), deleter);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Util.deleteAll(path);
+        } catch (IOException ex) {
+            log.log(Level.FINE, "Cannot delete " + path, ex);
+        }
+    }
+
+    private void deleteAlive() {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (File dir : new ArrayList<>(alive)) {
+            tasks.add(delete(dir));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Free space reserved by {@link #reserve(Path, long)}.
+     */
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public final class Reservation implements Closeable {
+
+        private final FileStore store;
+        private final long bytes;
+        private boolean closed = false;
+
+        @Override
+        public void close() {
+            synchronized (reservations) {
+                if (!closed) {
+                    closed = true;
+                    reservations.computeIfPresent(store, (key, reserved) -> reserved > bytes ? reserved - bytes : null);
+                }
+            }
+        }
+    }
+}
@@ -16,10 +16,18 @@
  */
 package beanzooka.core;
 
+import org.jspecify.annotations.Nullable;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 /**
  *
@@ -40,6 +48,58 @@ public class UserDir {
 
     boolean clone;
 
+    /**
+     * How the folder is cloned when {@link #isClone()} is set.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    CloneStrategy cloneStrategy = CloneStrategy.COPY;
+
+    /**
+     * Glob of the files, relative to the folder, that sessions never modify.
+     * These files are shared with the clone, and made read-only, when using {@link CloneStrategy#HARD_LINK}.
+     */
+    @lombok.NonNull
+    @lombok.Builder.Default
+    String immutablePattern = DEFAULT_IMMUTABLE_PATTERN;
+
+    /**
+     * Parent of the temporary and cloned dirs, such as a RAM-backed file system.
+     * Null or short of free space means the default temp dir.
+     */
+    @Nullable
+    File baseDir;
+
+    public static final String DEFAULT_IMMUTABLE_PATTERN = "**.jar";
+
+    /**
+     * Creates linked clones in a hidden sibling of their source instead of the temp dir,
+     * so that links still work when the source is on another file system.
+     */
+    public static final String NEXT_TO_SOURCE_PROPERTY = "beanzooka.clone.nextToSource";
+
+    // sizes of the last clones, to avoid walking multi-GB sources before each clone
+    private static final Map<Path, Long> SIZE_ESTIMATES = new ConcurrentHashMap<>();
+
+    public enum CloneStrategy {
+        /**
+         * Copies every file.
+         */
+        COPY,
+        /**
+         * Hard-links the immutable files and copies the others.
+         * Linked files are made read-only, in the source too, so that sessions cannot modify them in place:
+         * this strategy changes the permissions of the source folder.
+         * Falls back to copy, without touching the source, if the file system does not support links.
+         */
+        HARD_LINK,
+        /**
+         * Makes copy-on-write clones of every file.
+         * Falls back to copy if the file system does not support it.
+         */
+        REFLINK
+    }
+
     public static File resolveLogFile(File workingDir) {
         return workingDir.toPath().resolve("var").resolve("log").resolve("messages.log").toFile();
     }
@@ -49,30 +109,81 @@ public class UserDir {
     }
 
     public File createWorkingDir() throws IOException {
-        if (UserDir.TEMP.equals(this)) {
+        return createWorkingDir(size -> {
+        });
+    }
+
+    public File createWorkingDir(LongConsumer onBytesCopied) throws IOException {
+        if (UserDir.TEMP.equals(withBaseDir(null))) {
             return createTempUserDir();
         }
         if (clone) {
-            File cloned = createTempUserDir();
-            Util.copyAll(folder.toPath(), cloned.toPath());
-            return cloned;
+            // the reservation keeps concurrent clones from filling the base dir together
+            try (TempDirs.Reservation reservation = baseDir != null ? TempDirs.DEFAULT.reserve(baseDir.toPath(), getSizeEstimate()) : null) {
+                File cloned = createCloneDir(reservation != null);
+                AtomicLong copied = new AtomicLong();
+                try {
+                    cloneTo(cloned.toPath(), size -> {
+                        copied.addAndGet(size);
+                        onBytesCopied.accept(size);
+                    });
+                } catch (IOException | RuntimeException | Error ex) {
+                    TempDirs.DEFAULT.delete(cloned);
+                    throw ex;
+                }
+                SIZE_ESTIMATES.put(getSizeKey(), copied.get());
+                // the source may itself be a temp dir owned by another process
+                TempDirs.DEFAULT.mark(cloned);
+                return cloned;
+            }
         }
         return folder;
     }
 
-    private static File createTempUserDir() throws IOException {
-        File result = Files.createTempDirectory("userdir").toFile();
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteDirectory(result)));
-        return result;
+    private Path getSizeKey() {
+        return folder.toPath().toAbsolutePath();
     }
 
-    private static boolean deleteDirectory(File directoryToBeDeleted) {
-        File[] allContents = directoryToBeDeleted.listFiles();
-        if (allContents != null) {
-            for (File file : allContents) {
-                deleteDirectory(file);
+    private long getSizeEstimate() throws IOException {
+        Long result = SIZE_ESTIMATES.get(getSizeKey());
+        return result != null ? result : Util.sizeOf(folder.toPath());
+    }
+
+    private void cloneTo(Path target, LongConsumer onBytesCopied) throws IOException {
+        Path source = folder.toPath();
+        int parallelism = ParallelCopy.getDefaultParallelism();
+        switch (cloneStrategy) {
+            case HARD_LINK:
+                PathMatcher immutables = source.getFileSystem().getPathMatcher("glob:" + immutablePattern);
+                Util.linkAllInParallel(source, target, immutables, parallelism, onBytesCopied);
+                break;
+            case REFLINK:
+                if (!Util.reflinkAll(source, target)) {
+                    Util.copyAllInParallel(source, target, parallelism, onBytesCopied);
+                }
+                break;
+            default:
+                Util.copyAllInParallel(source, target, parallelism, onBytesCopied);
+                break;
+        }
+    }
+
+    private File createCloneDir(boolean inBaseDir) throws IOException {
+        if (inBaseDir) {
+            return TempDirs.DEFAULT.create(baseDir.toPath(), "userdir");
+        }
+        // links only work within a file system so the clone may be created next to its source
+        if (cloneStrategy != CloneStrategy.COPY && Boolean.getBoolean(NEXT_TO_SOURCE_PROPERTY)) {
+            Path parent = folder.toPath().toAbsolutePath().getParent();
+            if (parent != null && Files.isWritable(parent)) {
+                return TempDirs.DEFAULT.create(parent, "." + folder.getName() + "-clone");
             }
         }
-        return directoryToBeDeleted.delete();
+        return TempDirs.DEFAULT.create(null, "userdir");
+    }
+
+    private File createTempUserDir() throws IOException {
+        Path root = baseDir != null && TempDirs.hasRoom(baseDir.toPath(), 0) ? baseDir.toPath() : null;
+        return TempDirs.DEFAULT.create(root, "userdir");
     }
 }
@@ -16,38 +16,324 @@
  */
 package beanzooka.core;
 
+import nbbrd.io.sys.OS;
+
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.AccessDeniedException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.stream.Stream;
 
 /**
  *
  * @author Philippe Charles
  */
 @lombok.experimental.UtilityClass
+@lombok.extern.java.Log
 class Util {
 
     void copyAll(Path source, Path destination) throws IOException {
+        copyAll(source, destination, size -> {
+        });
+    }
+
+    void copyAll(Path source, Path destination, LongConsumer onFileCopied) throws IOException {
+        copyAll(source, destination, name -> true, onFileCopied);
+    }
+
+    void copyAll(Path source, Path destination, Predicate<String> filter, LongConsumer onFileCopied) throws IOException {
         Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                checkInterrupted();
+                if (!filter.test(toRelativeName(source, file))) {
+                    return FileVisitResult.CONTINUE;
+                }
                 Path target = destination.resolve(source.relativize(file).toString());
                 Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                onFileCopied.accept(attrs.size());
                 return FileVisitResult.CONTINUE;
             }
 
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                Path target = destination.resolve(source.relativize(dir).toString());
-                if (Files.notExists(target)) {
-                    Files.createDirectory(target);
+                checkInterrupted();
+                Files.createDirectories(destination.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    void copyAllInParallel(Path source, Path destination, int parallelism, LongConsumer onFileCopied) throws IOException {
+        new ParallelCopy(source, destination, name -> true, ParallelCopy.FileCopier.COPY, onFileCopied).run(parallelism);
+    }
+
+    void linkAllInParallel(Path source, Path destination, PathMatcher linkable, int parallelism, LongConsumer onFileCopied) throws IOException {
+        linkAllInParallel(source, destination, linkable, name -> true, parallelism, onFileCopied);
+    }
+
+    void linkAllInParallel(Path source, Path destination, PathMatcher linkable, Predicate<String> filter, int parallelism, LongConsumer onFileCopied) throws IOException {
+        new ParallelCopy(source, destination, filter, new HardLinker(source, linkable, !isLinkSupported(source, destination)), onFileCopied).run(parallelism);
+    }
+
+    /**
+     * Gets the path of a file relative to a root, using '/' as separator whatever the file system.
+     */
+    String toRelativeName(Path root, Path file) {
+        StringJoiner result = new StringJoiner("/");
+        for (Path name : root.relativize(file)) {
+            result.add(name.toString());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Runs tasks on a bounded pool of daemon threads and returns their results in order.
+     * The first failure or an interruption cancels the remaining tasks.
+     */
+    <T> List<T> invokeAllInParallel(String name, int parallelism, List<? extends Callable<T>> tasks) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tasks.size())), daemonThreadFactory(name));
+        try {
+            return invokeAll(pool, tasks);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs tasks on a shared executor and returns their results in order.
+     * The first failure or an interruption cancels the remaining tasks.
+     */
+    <T> List<T> invokeAll(ExecutorService executor, List<? extends Callable<T>> tasks) throws IOException {
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            List<T> result = new ArrayList<>();
+            for (Future<T> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cancelled");
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    IOException unwrap(Throwable ex) {
+        if (ex instanceof UncheckedIOException) {
+            return ((UncheckedIOException) ex).getCause();
+        }
+        if (ex instanceof IOException) {
+            return (IOException) ex;
+        }
+        if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new IOException(ex);
+    }
+
+    boolean reflinkAll(Path source, Path destination) throws IOException {
+        List<String> command = getReflinkCommand(source, destination);
+        if (command.isEmpty()) {
+            return false;
+        }
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            int exitValue = process.waitFor();
+            if (exitValue != 0) {
+                log.log(Level.FINE, "Reflink not supported from ''{0}'' to ''{1}'' (exit value {2})", new Object[]{source, destination, exitValue});
+                return false;
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cancelled");
+        }
+    }
+
+    private List<String> getReflinkCommand(Path source, Path destination) {
+        String from = source.toString() + File.separator + ".";
+        switch (OS.NAME) {
+            case LINUX:
+                return Arrays.asList("cp", "-R", "--reflink=always", from, destination.toString());
+            case MACOS:
+                return Arrays.asList("cp", "-c", "-R", from, destination.toString());
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    long sizeOf(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    void deleteAll(Path root) throws IOException {
+        if (Files.notExists(root, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                try {
+                    Files.delete(file);
+                } catch (AccessDeniedException ex) {
+                    // read-only files cannot be deleted on Windows
+                    if (!file.toFile().setWritable(true)) {
+                        throw ex;
+                    }
+                    Files.delete(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
                 }
+                Files.delete(dir);
                 return FileVisitResult.CONTINUE;
             }
         });
     }
+
+    void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Cancelled");
+        }
+    }
+
+    /**
+     * Checks once, before any source file is made read-only, that files of a source can be hard-linked into a destination.
+     */
+    boolean isLinkSupported(Path source, Path destination) {
+        try {
+            Files.createDirectories(destination);
+            if (!Files.getFileStore(source).equals(Files.getFileStore(destination))) {
+                return false;
+            }
+            Path probe = Files.createTempFile(destination, "link", ".tmp");
+            Path link = probe.resolveSibling(probe.getFileName() + ".link");
+            try {
+                Files.createLink(link, probe);
+                return true;
+            } finally {
+                Files.deleteIfExists(link);
+                Files.delete(probe);
+            }
+        } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+            log.log(Level.FINE, "Hard link not supported, falling back to copy", ex);
+            return false;
+        }
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class HardLinker implements ParallelCopy.FileCopier {
+
+        private final Path root;
+        private final PathMatcher linkable;
+        private volatile boolean unsupported;
+
+        @Override
+        public void copy(Path file, Path target) throws IOException {
+            if (!unsupported && linkable.matches(root.relativize(file))) {
+                try {
+                    Files.deleteIfExists(target);
+                    Files.createLink(target, file);
+                } catch (IOException | UnsupportedOperationException ex) {
+                    log.log(Level.FINE, "Hard link not supported, falling back to copy", ex);
+                    unsupported = true;
+                    ParallelCopy.FileCopier.COPY.copy(file, target);
+                    return;
+                }
+                if (makeReadOnly(file)) {
+                    return;
+                }
+                Files.delete(target);
+            }
+            ParallelCopy.FileCopier.COPY.copy(file, target);
+        }
+
+        // links share their content with the source so that an in-place write must fail instead of leaking
+        private static boolean makeReadOnly(Path file) {
+            return !Files.isWritable(file) || file.toFile().setReadOnly();
+        }
+    }
+
+    /**
+     * Runs a process and gets its output once it exits.
+     * The output goes to a temp file so that a process that never closes it cannot outlive the timeout,
+     * and the process is destroyed on timeout or interruption.
+     *
+     * @return the output lines, empty on timeout
+     */
+    Optional<List<String>> execute(ProcessBuilder builder, long timeout, TimeUnit unit) throws IOException, InterruptedException {
+        Path output = Files.createTempFile("beanzooka-process", ".txt");
+        try {
+            Process process = builder.redirectOutput(output.toFile()).start();
+            try {
+                if (!process.waitFor(timeout, unit)) {
+                    return Optional.empty();
+                }
+            } finally {
+                if (process.isAlive()) {
+                    process.destroyForcibly().waitFor(1, TimeUnit.SECONDS);
+                }
+            }
+            return Optional.of(Arrays.asList(new String(Files.readAllBytes(output), Charset.defaultCharset()).split("\\R")));
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread result = new Thread(runnable, name + "-" + count.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        };
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.core;
+
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps working dirs prepared in background for a configuration so that launching it only starts the process.
+ * Only configurations whose working dir is disposable (temp or cloned user dir) are pooled.
+ * Methods are thread-safe.
+ */
+public final class WarmPool {
+
+    public static final String SIZE_PROPERTY = "beanzooka.warmPool.size";
+
+    public static int getDefaultSize() {
+        return Math.max(0, Integer.getInteger(SIZE_PROPERTY, 0));
+    }
+
+    private static final ExecutorService FINGERPRINTER = Executors.newSingleThreadExecutor(Util.daemonThreadFactory("beanzooka-fingerprint"));
+
+    private final SessionEngine engine;
+
+    @lombok.Getter
+    private final int size;
+
+    private final Deque<CompletableFuture<File>> slots = new ArrayDeque<>();
+    private Configuration configuration = null;
+    private Fingerprint fingerprint = null;
+
+    public WarmPool(@NonNull SessionEngine engine, int size) {
+        this.engine = engine;
+        this.size = size;
+    }
+
+    /**
+     * Sets the configuration to prepare working dirs for.
+     * Working dirs prepared for a previous configuration are discarded,
+     * and so are those of an equal configuration whose files changed on disk since they were prepared.
+     * This method is cheap enough to be called on the EDT since the files are checked in background.
+     *
+     * @param configuration a configuration, null to empty the pool
+     */
+    public synchronized void setConfiguration(@Nullable Configuration configuration) {
+        Configuration poolable = configuration != null && isPoolable(configuration) ? configuration : null;
+        if (!Objects.equals(this.configuration, poolable)) {
+            clear();
+            this.configuration = poolable;
+            this.fingerprint = null;
+            fill();
+        }
+        if (poolable != null) {
+            // a fresh fingerprint, not the memoized one, tells if the files changed
+            CompletableFuture
+                    .supplyAsync(() -> Fingerprint.of(poolable), FINGERPRINTER)
+                    .thenAccept(value -> onFingerprint(poolable, value));
+        }
+    }
+
+    /**
+     * Takes a prepared working dir and schedules its replacement.
+     *
+     * @param configuration the configuration to launch
+     * @return a working dir if one is ready for this configuration, empty otherwise
+     */
+    @NonNull
+    public synchronized Optional<File> take(@NonNull Configuration configuration) {
+        if (!configuration.equals(this.configuration)) {
+            return Optional.empty();
+        }
+        Optional<File> result = Optional.empty();
+        Iterator<CompletableFuture<File>> iterator = slots.iterator();
+        while (iterator.hasNext() && !result.isPresent()) {
+            CompletableFuture<File> slot = iterator.next();
+            if (slot.isDone()) {
+                iterator.remove();
+                if (!slot.isCompletedExceptionally()) {
+                    result = Optional.of(slot.join());
+                }
+            }
+        }
+        fill();
+        return result;
+    }
+
+    public synchronized int getReadyCount() {
+        return (int) slots.stream().filter(slot -> slot.isDone() && !slot.isCompletedExceptionally()).count();
+    }
+
+    /**
+     * Discards all the working dirs of the pool.
+     */
+    public synchronized void clear() {
+        slots.forEach(this::discard);
+        slots.clear();
+    }
+
+    private void fill() {
+        while (configuration != null && slots.size() < size) {
+            slots.add(engine.prepareInBackground(configuration, LaunchListener.NO_OP));
+        }
+    }
+
+    private void discard(CompletableFuture<File> slot) {
+        slot.cancel(true);
+        slot.thenAccept(TempDirs.DEFAULT::delete);
+    }
+
+    private synchronized void onFingerprint(Configuration configuration, Fingerprint value) {
+        if (!configuration.equals(this.configuration)) {
+            return;
+        }
+        if (fingerprint != null && !fingerprint.equals(value)) {
+            clear();
+            fill();
+        }
+        fingerprint = value;
+    }
+
+    @Nullable
+    synchronized Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    static boolean isPoolable(Configuration configuration) {
+        return configuration.getUserDir().map(UserDir::isClone).orElse(true);
+    }
+}
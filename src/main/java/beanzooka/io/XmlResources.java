@@ -168,6 +168,15 @@ public class XmlResources {
                         case CLONE_TAG:
                             result.clone(Boolean.parseBoolean(xml.getElementText()));
                             break;
+                        case CLONE_STRATEGY_TAG:
+                            result.cloneStrategy(UserDir.CloneStrategy.valueOf(xml.getElementText()));
+                            break;
+                        case IMMUTABLE_PATTERN_TAG:
+                            result.immutablePattern(xml.getElementText());
+                            break;
+                        case BASE_DIR_TAG:
+                            result.baseDir(Paths.get(xml.getElementText()).toFile());
+                            break;
                     }
                     break;
                 case XMLStreamReader.END_ELEMENT:
@@ -218,12 +227,21 @@ public class XmlResources {
                         case SELECTION_TEMP_USER_DIR_TAG:
                             result.tempUserDirSelected(Boolean.parseBoolean(xml.getElementText()));
                             break;
+                        case SELECTION_TEMP_BASE_DIR_TAG:
+                            result.tempBaseDir(Paths.get(xml.getElementText()).toFile());
+                            break;
                         case SELECTION_USER_DIR_INDEX_TAG:
                             result.selectedUserDirIndex(Integer.parseInt(xml.getElementText()));
                             break;
                         case SELECTION_PLUGIN_INDEX_TAG:
                             result.selectedPluginIndex(Integer.parseInt(xml.getElementText()));
                             break;
+                        case SELECTION_SHARED_PLUGINS_TAG:
+                            result.sharedPluginsSelected(Boolean.parseBoolean(xml.getElementText()));
+                            break;
+                        case SELECTION_FLIGHT_RECORDING_TAG:
+                            result.flightRecordingSelected(Boolean.parseBoolean(xml.getElementText()));
+                            break;
                     }
                     break;
                 case XMLStreamReader.END_ELEMENT:
@@ -254,12 +272,17 @@ public class XmlResources {
             writeValue(xml, SELECTION_JDK_INDEX_TAG, resources.getSelectedJdkIndex().toString());
         }
         writeValue(xml, SELECTION_TEMP_USER_DIR_TAG, Boolean.toString(resources.isTempUserDirSelected()));
+        if (resources.getTempBaseDir() != null) {
+            writeValue(xml, SELECTION_TEMP_BASE_DIR_TAG, resources.getTempBaseDir().toString());
+        }
         if (resources.getSelectedUserDirIndex() != null) {
             writeValue(xml, SELECTION_USER_DIR_INDEX_TAG, resources.getSelectedUserDirIndex().toString());
         }
         for (Integer idx : resources.getSelectedPluginIndices()) {
             writeValue(xml, SELECTION_PLUGIN_INDEX_TAG, idx.toString());
         }
+        writeValue(xml, SELECTION_SHARED_PLUGINS_TAG, Boolean.toString(resources.isSharedPluginsSelected()));
+        writeValue(xml, SELECTION_FLIGHT_RECORDING_TAG, Boolean.toString(resources.isFlightRecordingSelected()));
         xml.writeEndElement();
     }
 
@@ -290,6 +313,11 @@ public class XmlResources {
         writeValue(xml, LABEL_TAG, item.getLabel());
         writeValue(xml, FOLDER_TAG, item.getFolder().toString());
         writeValue(xml, CLONE_TAG, Boolean.toString(item.isClone()));
+        writeValue(xml, CLONE_STRATEGY_TAG, item.getCloneStrategy().name());
+        writeValue(xml, IMMUTABLE_PATTERN_TAG, item.getImmutablePattern());
+        if (item.getBaseDir() != null) {
+            writeValue(xml, BASE_DIR_TAG, item.getBaseDir().toString());
+        }
         xml.writeEndElement();
     }
 
@@ -332,6 +360,9 @@ public class XmlResources {
     private static final String JDK_TAG = "jdk";
     private static final String FILE_TAG = "file";
     private static final String CLONE_TAG = "clone";
+    private static final String CLONE_STRATEGY_TAG = "cloneStrategy";
+    private static final String IMMUTABLE_PATTERN_TAG = "immutablePattern";
+    private static final String BASE_DIR_TAG = "baseDir";
     private static final String USER_DIR_TAG = "userDir";
     private static final String FOLDER_TAG = "folder";
     private static final String PLUGIN_TAG = "plugin";
@@ -340,6 +371,9 @@ public class XmlResources {
     private static final String SELECTION_APP_INDEX_TAG = "appIndex";
     private static final String SELECTION_JDK_INDEX_TAG = "jdkIndex";
     private static final String SELECTION_TEMP_USER_DIR_TAG = "tempUserDir";
+    private static final String SELECTION_TEMP_BASE_DIR_TAG = "tempBaseDir";
     private static final String SELECTION_USER_DIR_INDEX_TAG = "userDirIndex";
     private static final String SELECTION_PLUGIN_INDEX_TAG = "pluginIndex";
+    private static final String SELECTION_SHARED_PLUGINS_TAG = "sharedPlugins";
+    private static final String SELECTION_FLIGHT_RECORDING_TAG = "flightRecording";
 }
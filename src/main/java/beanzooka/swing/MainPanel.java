@@ -17,7 +17,11 @@
 package beanzooka.swing;
 
 import beanzooka.About;
+import beanzooka.core.Configuration;
+import beanzooka.core.LaunchQueue;
 import beanzooka.core.Resources;
+import beanzooka.core.SessionEngine;
+import beanzooka.core.WarmPool;
 import beanzooka.io.XmlResources;
 import ec.util.various.swing.FontAwesome;
 import ec.util.various.swing.JCommand;
@@ -49,6 +53,7 @@ public final class MainPanel extends javax.swing.JPanel {
     public static final String OPEN_ACTION = "open";
     public static final String SAVE_AS_ACTION = "saveAs";
     public static final String LAUNCH_ACTION = "launch";
+    public static final String LAUNCH_MATRIX_ACTION = "launchMatrix";
     public static final String ABOUT_ACTION = "about";
 
     /**
@@ -67,9 +72,15 @@ public final class MainPanel extends javax.swing.JPanel {
         init(ResourcesPanel.FILL_ACTION, resources.getActionMap().get(ResourcesPanel.FILL_ACTION), fillButton, this, FontAwesome.FA_MAGIC, "Auto fill", "F4");
         init(LAUNCH_ACTION, new LaunchCmd().toAction(this), launchButton, this, FontAwesome.FA_PLAY_CIRCLE, "Launch", "F5");
         init(SessionsPanel.RELAUNCH_ACTION, sessions.getActionMap().get(SessionsPanel.RELAUNCH_ACTION), relaunchButton, this, FontAwesome.FA_PLAY_CIRCLE_O, "Relaunch", "F6");
+        init(LAUNCH_MATRIX_ACTION, new LaunchMatrixCmd().toAction(this), matrixButton, this, FontAwesome.FA_TH, "Launch matrix", "F8");
         init(ABOUT_ACTION, new AboutCmd().toAction(this), aboutButton, this, FontAwesome.FA_INFO_CIRCLE, "About", "F7");
 
         resources.addPropertyChangeListener("enabled", this::onResourcesEnabledChange);
+        resources.addPropertyChangeListener(ResourcesPanel.CONFIGURATION_PROPERTY, this::onConfigurationChange);
+    }
+
+    private void onConfigurationChange(PropertyChangeEvent event) {
+        warmPool.setConfiguration(resources.getConfiguration().orElse(null));
     }
 
     private void onResourcesEnabledChange(PropertyChangeEvent event) {
@@ -79,6 +90,7 @@ public final class MainPanel extends javax.swing.JPanel {
         saveAsButton.setEnabled(enabled);
         fillButton.setEnabled(enabled);
         launchButton.setEnabled(enabled);
+        matrixButton.setEnabled(enabled);
     }
 
     private void init(String id, Action action, JButton button, MainPanel c, FontAwesome icon, String toolTip, String key) {
@@ -106,6 +118,10 @@ public final class MainPanel extends javax.swing.JPanel {
         return false;
     }
 
+    private final WarmPool warmPool = new WarmPool(SessionEngine.DEFAULT, WarmPool.getDefaultSize());
+
+    private final LaunchQueue launchQueue = new LaunchQueue(LaunchQueue.getDefaultConcurrency(), LaunchQueue.Admission.getDefault());
+
     private static final Preferences PREFERENCES = Preferences.userNodeForPackage(Resources.class).node(Resources.class.getSimpleName());
 
     public void reload(File file) {
@@ -202,7 +218,10 @@ public final class MainPanel extends javax.swing.JPanel {
 
         @Override
         public void execute(MainPanel c) throws Exception {
-            Session session = Session.of(c.resources.getConfiguration().get());
+            Configuration configuration = c.resources.getConfiguration().get();
+            Session session = c.warmPool.take(configuration)
+                    .map(workingDir -> new Session(configuration, workingDir))
+                    .orElseGet(() -> new Session(configuration));
             c.sessions.add(session);
             session.execute();
         }
@@ -219,6 +238,35 @@ public final class MainPanel extends javax.swing.JPanel {
         }
     }
 
+    private static final class LaunchMatrixCmd extends CustomCommand {
+
+        @Override
+        public void execute(MainPanel c) {
+            Optional<Configuration> selection = c.resources.getConfiguration();
+            MatrixPanel panel = new MatrixPanel(c.resources.getResources(), selection, c.launchQueue.getConcurrency());
+            if (JOptionPane.showConfirmDialog(c, panel, "Launch matrix", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+                return;
+            }
+            c.launchQueue.setConcurrency(panel.getConcurrency());
+            for (Configuration configuration : panel.getMatrix(selection).getConfigurations()) {
+                Session session = new Session(configuration);
+                c.sessions.add(session);
+                session.enqueue(c.launchQueue);
+            }
+        }
+
+        @Override
+        public boolean isEnabled(@NonNull MainPanel c) {
+            return !c.resources.getResources().getApps().isEmpty() && !c.resources.getResources().getJdks().isEmpty();
+        }
+
+        @Override
+        public ActionAdapter toAction(@NonNull MainPanel c) {
+            return super.toAction(c)
+                    .withWeakPropertyChangeListener(c.resources, ResourcesPanel.RESOURCES_PROPERTY);
+        }
+    }
+
     private static final class AboutCmd extends CustomCommand {
 
         @Override
@@ -244,6 +292,7 @@ public final class MainPanel extends javax.swing.JPanel {
         jSeparator1 = new javax.swing.JToolBar.Separator();
         launchButton = new javax.swing.JButton();
         relaunchButton = new javax.swing.JButton();
+        matrixButton = new javax.swing.JButton();
         filler1 = new javax.swing.Box.Filler(new java.awt.Dimension(0, 0), new java.awt.Dimension(0, 0), new java.awt.Dimension(32767, 0));
         aboutButton = new javax.swing.JButton();
         resources = new beanzooka.swing.ResourcesPanel();
@@ -294,6 +343,13 @@ public final class MainPanel extends javax.swing.JPanel {
         relaunchButton.setHorizontalTextPosition(javax.swing.SwingConstants.CENTER);
         relaunchButton.setVerticalTextPosition(javax.swing.SwingConstants.BOTTOM);
         jToolBar1.add(relaunchButton);
+
+        matrixButton.setText("matrix");
+        matrixButton.setToolTipText("Launch matrix");
+        matrixButton.setFocusable(false);
+        matrixButton.setHorizontalTextPosition(javax.swing.SwingConstants.CENTER);
+        matrixButton.setVerticalTextPosition(javax.swing.SwingConstants.BOTTOM);
+        jToolBar1.add(matrixButton);
         jToolBar1.add(filler1);
 
         aboutButton.setText("about");
@@ -334,6 +390,7 @@ public final class MainPanel extends javax.swing.JPanel {
     private javax.swing.JToolBar.Separator jSeparator1;
     private javax.swing.JToolBar jToolBar1;
     private javax.swing.JButton launchButton;
+    private javax.swing.JButton matrixButton;
     private javax.swing.JButton newButton;
     private javax.swing.JButton openButton;
     private javax.swing.JButton relaunchButton;
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.swing;
+
+import beanzooka.core.App;
+import beanzooka.core.Configuration;
+import beanzooka.core.Jdk;
+import beanzooka.core.LaunchMatrix;
+import beanzooka.core.Plugin;
+import beanzooka.core.Resources;
+import ec.util.list.swing.JLists;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Selects the apps, JDKs and plugin sets of a launch matrix.
+ */
+final class MatrixPanel extends JPanel {
+
+    private final JList<App> apps;
+    private final JList<Jdk> jdks;
+    private final JList<PluginSet> pluginSets;
+    private final JSpinner concurrency;
+    private final JLabel summary;
+
+    MatrixPanel(Resources resources, Optional<Configuration> selection, int concurrency) {
+        this.apps = new JList<>(resources.getApps().toArray(new App[0]));
+        this.jdks = new JList<>(resources.getJdks().toArray(new Jdk[0]));
+        this.pluginSets = new JList<>(getPluginSets(resources.getPlugins(), selection.map(Configuration::getPlugins).orElse(Collections.emptyList())).toArray(new PluginSet[0]));
+        this.concurrency = new JSpinner(new SpinnerNumberModel(concurrency, 1, 64, 1));
+        this.summary = new JLabel();
+
+        apps.setCellRenderer(JLists.cellRendererOf(Renderers::renderApp));
+        jdks.setCellRenderer(JLists.cellRendererOf(Renderers::renderJdk));
+        pluginSets.setCellRenderer(JLists.cellRendererOf((label, value) -> label.setText(value.getLabel())));
+
+        selection.ifPresent(o -> {
+            apps.setSelectedValue(o.getApp(), true);
+            jdks.setSelectedValue(o.getJdk(), true);
+        });
+        pluginSets.setSelectedIndex(selection.map(o -> !o.getPlugins().isEmpty()).orElse(false) ? 1 : 0);
+
+        apps.addListSelectionListener(event -> updateSummary());
+        jdks.addListSelectionListener(event -> updateSummary());
+        pluginSets.addListSelectionListener(event -> updateSummary());
+        updateSummary();
+
+        JPanel lists = new JPanel(new GridLayout(1, 3, 5, 5));
+        lists.add(newListPane("Apps", apps));
+        lists.add(newListPane("JDKs", jdks));
+        lists.add(newListPane("Plugin sets", pluginSets));
+
+        JPanel footer = new JPanel(new FlowLayout(FlowLayout.LEADING));
+        footer.add(new JLabel("Concurrent sessions:"));
+        footer.add(this.concurrency);
+        footer.add(summary);
+
+        setLayout(new BorderLayout(5, 5));
+        add(lists, BorderLayout.CENTER);
+        add(footer, BorderLayout.SOUTH);
+        setPreferredSize(new Dimension(600, 250));
+    }
+
+    LaunchMatrix getMatrix(Optional<Configuration> selection) {
+        LaunchMatrix.Builder result = LaunchMatrix
+                .builder()
+                .apps(apps.getSelectedValuesList())
+                .jdks(jdks.getSelectedValuesList());
+        pluginSets.getSelectedValuesList().forEach(set -> result.pluginSet(set.getPlugins()));
+        selection.ifPresent(o -> result
+                .userDir(o.getUserDir())
+                .tempBaseDir(o.getTempBaseDir())
+                .sharedPlugins(o.isSharedPlugins())
+                .flightRecording(o.isFlightRecording()));
+        return result.build();
+    }
+
+    int getConcurrency() {
+        return (Integer) concurrency.getValue();
+    }
+
+    private void updateSummary() {
+        int count = apps.getSelectedIndices().length * jdks.getSelectedIndices().length * pluginSets.getSelectedIndices().length;
+        summary.setText(count + " session(s)");
+    }
+
+    private static JComponent newListPane(String title, JList<?> list) {
+        JScrollPane result = new JScrollPane(list);
+        result.setBorder(BorderFactory.createTitledBorder(title));
+        return result;
+    }
+
+    private static List<PluginSet> getPluginSets(List<Plugin> all, List<Plugin> selected) {
+        List<PluginSet> result = new ArrayList<>();
+        result.add(new PluginSet("No plugins", Collections.emptyList()));
+        if (!selected.isEmpty()) {
+            result.add(new PluginSet("Selected plugins (" + selected.size() + ")", selected));
+        }
+        if (all.size() > 1 && !all.equals(selected)) {
+            result.add(new PluginSet("All plugins (" + all.size() + ")", all));
+        }
+        for (Plugin plugin : all) {
+            result.add(new PluginSet("Only " + plugin.getLabel(), Collections.singletonList(plugin)));
+        }
+        return result;
+    }
+
+    @lombok.Value
+    private static class PluginSet {
+
+        String label;
+        List<Plugin> plugins;
+    }
+}
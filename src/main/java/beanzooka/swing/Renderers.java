@@ -17,11 +17,16 @@
 package beanzooka.swing;
 
 import beanzooka.core.App;
+import beanzooka.core.FileValidity;
+import beanzooka.core.Fingerprint;
+import beanzooka.core.FlightRecording;
 import beanzooka.core.Jdk;
+import beanzooka.core.JdkInfo;
+import beanzooka.core.JdkInfoCache;
 import beanzooka.core.Plugin;
+import beanzooka.core.ProcessMonitor;
 import beanzooka.core.UserDir;
 import ec.util.completion.FileAutoCompletionSource;
-import ec.util.completion.swing.FileListCellRenderer;
 import ec.util.completion.swing.JAutoCompletion;
 import ec.util.desktop.Desktop;
 import ec.util.desktop.DesktopManager;
@@ -40,8 +45,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.prefs.Preferences;
 
 /**
@@ -100,7 +112,7 @@ class Renderers {
         withPrompt("file path", result);
         JAutoCompletion completion = new JAutoCompletion(result);
         completion.setSource(new FileAutoCompletionSource(false, optionalFileFilter, new File[0]));
-        completion.getList().setCellRenderer(new FileListCellRenderer(Executors.newSingleThreadExecutor()));
+        completion.getList().setCellRenderer(FileIconLoader.DEFAULT.newListCellRenderer());
         return result;
     }
 
@@ -125,7 +137,7 @@ class Renderers {
         withPrompt("cluster paths separated by '" + File.pathSeparator + "'", result);
         JAutoCompletion completion = new JAutoCompletion(result);
         completion.setSource(new FileAutoCompletionSource());
-        completion.getList().setCellRenderer(new FileListCellRenderer(Executors.newSingleThreadExecutor()));
+        completion.getList().setCellRenderer(FileIconLoader.DEFAULT.newListCellRenderer());
         completion.setSeparator(File.pathSeparator);
         return result;
     }
@@ -138,19 +150,54 @@ class Renderers {
         ListTableEdition.ofText("Edit clusters", listTable, Jdk::fromFiles, Jdk::toFiles).edit(textField);
     }
 
+    final TableColumnDescriptor JDK_INFO_DESCRIPTOR
+            = TableColumnDescriptor.builder()
+            .cellRenderer(() -> JTables.cellRendererOf(Renderers::renderJdkInfo))
+            .preferedWidth(150)
+            .build();
+
+    final TableColumnDescriptor CLONE_STRATEGY_DESCRIPTOR
+            = TableColumnDescriptor.builder()
+            .cellEditor(() -> new DefaultCellEditor(new JComboBox<>(UserDir.CloneStrategy.values())))
+            .preferedWidth(100)
+            .build();
+
+    final TableColumnDescriptor IMMUTABLE_PATTERN_DESCRIPTOR
+            = TableColumnDescriptor.builder()
+            .cellRenderer(() -> JTables.cellRendererOf(Renderers::renderText))
+            .cellEditor(() -> TextCellEditor.of(o -> o, o -> o, newImmutablePatternField()))
+            .build();
+
+    private JTextField newImmutablePatternField() {
+        JTextField result = new JTextField();
+        withPrompt("glob of the files shared by hard-linked clones", result);
+        return result;
+    }
+
+    final TableColumnDescriptor BASE_DIR_DESCRIPTOR
+            = TableColumnDescriptor.builder()
+            .cellRenderer(() -> JTables.cellRendererOf(Renderers::renderFolder))
+            .cellEditor(() -> TextCellEditor.of(File::getPath, Renderers::toBaseDir, newFolderField("default temp dir"), Renderers::onMoreFolder))
+            .preferedWidth(150)
+            .build();
+
+    private File toBaseDir(String text) {
+        return text.trim().isEmpty() ? null : new File(text.trim());
+    }
+
     final TableColumnDescriptor FOLDER_DESCRIPTOR
             = TableColumnDescriptor.builder()
             .cellRenderer(() -> JTables.cellRendererOf(Renderers::renderFolder))
-            .cellEditor(() -> TextCellEditor.of(File::getPath, File::new, newFolderField(), Renderers::onMoreFolder))
+            .cellEditor(() -> TextCellEditor.of(File::getPath, File::new, newFolderField("folder path"), Renderers::onMoreFolder))
             .preferedWidth(300)
             .build();
 
-    private JTextField newFolderField() {
+    private JTextField newFolderField(String prompt) {
         JTextField result = new JTextField();
-        withPrompt("folder path", result);
+        withPrompt(prompt, result);
         JAutoCompletion completion = new JAutoCompletion(result);
         completion.setSource(new FileAutoCompletionSource());
-        completion.getList().setCellRenderer(new FileListCellRenderer(Executors.newSingleThreadExecutor()));
+        completion.getList().setCellRenderer(FileIconLoader.DEFAULT.newListCellRenderer());
         return result;
     }
 
@@ -176,11 +223,36 @@ class Renderers {
         label.setToolTipText(null);
         if (value != null) {
             label.setText(value.getLabel());
-            label.setToolTipText(value.getJavaHome().toString());
+            label.setToolTipText(getJdkInfo(value.getJavaHome())
+                    .map(info -> value.getJavaHome() + " - " + info)
+                    .orElseGet(value.getJavaHome()::toString));
             setIfInvalidFolder(label, value.getJavaHome());
         }
     }
 
+    void renderJdkInfo(JLabel label, File javaHome) {
+        label.setIcon(null);
+        label.setText(null);
+        label.setToolTipText(null);
+        if (javaHome != null) {
+            getJdkInfo(javaHome).ifPresent(info -> {
+                label.setText(info.getVersion() + (info.getVendor() != null ? " " + info.getVendor() : ""));
+                label.setToolTipText(info.toString());
+            });
+        }
+    }
+
+    private Optional<JdkInfo> getJdkInfo(File javaHome) {
+        CompletableFuture<Optional<JdkInfo>> result = JdkInfoCache.DEFAULT.getInfoAsync(javaHome);
+        if (!result.isDone() && JDK_INFO_HOOKED.add(result)) {
+            result.thenRun(() -> {
+                JDK_INFO_HOOKED.remove(result);
+                requestRepaint();
+            });
+        }
+        return result.getNow(Optional.empty());
+    }
+
     void renderUserDir(JLabel label, UserDir value) {
         label.setIcon(null);
         label.setToolTipText(null);
@@ -222,6 +294,15 @@ class Renderers {
         }
     }
 
+    void renderFingerprint(JLabel label, Fingerprint value) {
+        label.setIcon(null);
+        label.setToolTipText(null);
+        if (value != null) {
+            label.setText(value.getShortValue());
+            label.setToolTipText("Sessions with the same fingerprint share the same configuration: " + value.getValue());
+        }
+    }
+
     void renderPlugin(JLabel label, Plugin value) {
         label.setIcon(null);
         label.setToolTipText(null);
@@ -232,8 +313,82 @@ class Renderers {
         }
     }
 
-    void renderState(JLabel label, SwingWorker.StateValue value) {
-        label.setText(value.name());
+    void renderState(JLabel label, Session value) {
+        label.setText(value.getState().name());
+        label.setToolTipText(null);
+        if (value.isQueued()) {
+            label.setText(label.getText() + " (queued)");
+            label.setToolTipText("Waiting for a free slot in the launch queue");
+            return;
+        }
+        if (value.getState() == Session.State.PREPARING && value.getStage() != null) {
+            String progress = getProgress(value);
+            label.setText(label.getText() + " " + progress);
+            label.setToolTipText(progress);
+        } else if (value.getExtractionMillis() >= 0) {
+            label.setToolTipText(value.getConfiguration().getPlugins().size() + " plugin(s) extracted in " + value.getExtractionMillis() + " ms");
+        }
+    }
+
+    private String getProgress(Session value) {
+        switch (value.getStage()) {
+            case PREPARE_DIR:
+                return "copying user dir (" + formatBytes(value.getBytesCopied()) + ")";
+            case WRITE_CONFIG:
+                return "writing config";
+            case EXTRACT_PLUGINS:
+                return "extracting plugins (" + value.getEntriesExtracted() + " entries)";
+            case SEED_CACHE:
+                return "seeding caches (" + formatBytes(value.getBytesCopied()) + ")" + getExtraction(value);
+            case START_PROCESS:
+                return "starting process" + getExtraction(value);
+            default:
+                return "";
+        }
+    }
+
+    private String getExtraction(Session value) {
+        return value.getExtractionMillis() >= 0 ? ", plugins extracted in " + value.getExtractionMillis() + " ms" : "";
+    }
+
+    final SparklineCellRenderer<Session> CPU_RENDERER = newUsageRenderer(
+            sample -> String.format(Locale.ROOT, "%.0f %%", sample.getCpuPercent()),
+            ProcessMonitor.Sample::getCpuPercent);
+
+    final SparklineCellRenderer<Session> MEMORY_RENDERER = newUsageRenderer(
+            sample -> sample.getResidentBytes() >= 0 ? formatBytes(sample.getResidentBytes()) : "",
+            ProcessMonitor.Sample::getResidentBytes);
+
+    final SparklineCellRenderer<Session> THREADS_RENDERER = newUsageRenderer(
+            sample -> sample.getThreadCount() >= 0 ? Integer.toString(sample.getThreadCount()) : "",
+            ProcessMonitor.Sample::getThreadCount);
+
+    private SparklineCellRenderer<Session> newUsageRenderer(Function<ProcessMonitor.Sample, String> toText, ToDoubleFunction<ProcessMonitor.Sample> toValue) {
+        return new SparklineCellRenderer<>(Session.class,
+                session -> Optional.ofNullable(session.getUsage()).map(toText).orElse(null),
+                session -> session.getUsageHistory().stream().mapToDouble(toValue).toArray());
+    }
+
+    String formatRecording(FlightRecording.Summary summary) {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format(Locale.ROOT, "Duration:    %.1f s%n", summary.getDuration().toMillis() / 1000.0));
+        result.append(String.format(Locale.ROOT, "GC:          %d collection(s), %d ms of pauses, %d ms for the longest%n",
+                summary.getGcCount(), summary.getGcPauseTotal().toMillis(), summary.getGcPauseMax().toMillis()));
+        result.append(String.format(Locale.ROOT, "Allocation:  %s (%s/s)%n",
+                formatBytes(summary.getAllocatedBytes()), formatBytes((long) summary.getAllocationRate())));
+        result.append(String.format(Locale.ROOT, "%nHot methods (%d execution samples):%n", summary.getExecutionSamples()));
+        for (FlightRecording.HotMethod method : summary.getHotMethods()) {
+            result.append(String.format(Locale.ROOT, "%6.1f %%  %s%n", 100.0 * method.getSamples() / summary.getExecutionSamples(), method.getName()));
+        }
+        return result.toString();
+    }
+
+    private String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        int unit = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+        return String.format(Locale.ROOT, "%.1f %sB", (double) bytes / (1L << (unit * 10)), "KMGTPE".charAt(unit - 1));
     }
 
     void renderLabel(JLabel label, String value) {
@@ -246,23 +401,55 @@ class Renderers {
         label.setToolTipText(value);
     }
 
+    private final AtomicBoolean REPAINT_PENDING = new AtomicBoolean();
+
+    private final Set<CompletableFuture<?>> JDK_INFO_HOOKED = ConcurrentHashMap.newKeySet();
+
+    private final FileValidity VALIDITY = repaintOnChange(FileValidity.DEFAULT);
+
+    private FileValidity repaintOnChange(FileValidity validity) {
+        validity.addChangeListener(file -> requestRepaint());
+        return validity;
+    }
+
+    private void requestRepaint() {
+        if (REPAINT_PENDING.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(Renderers::repaintAll);
+        }
+    }
+
+    private void repaintAll() {
+        REPAINT_PENDING.set(false);
+        for (Window window : Window.getWindows()) {
+            if (window.isShowing()) {
+                window.repaint();
+            }
+        }
+    }
+
     private void setIfInvalidFolder(JLabel label, File folder) {
-        if (!folder.exists()) {
-            label.setIcon(getErrorIcon(label));
-            label.setToolTipText("Error: folder doesn't exist");
-        } else if (!folder.isDirectory()) {
-            label.setIcon(getErrorIcon(label));
-            label.setToolTipText("Error: not a folder");
+        switch (VALIDITY.getStatus(folder)) {
+            case MISSING:
+                label.setIcon(getErrorIcon(label));
+                label.setToolTipText("Error: folder doesn't exist");
+                break;
+            case FILE:
+                label.setIcon(getErrorIcon(label));
+                label.setToolTipText("Error: not a folder");
+                break;
         }
     }
 
-    private void setIfInvalidFile(JLabel label, File folder) {
-        if (!folder.exists()) {
-            label.setIcon(getErrorIcon(label));
-            label.setToolTipText("Error: file doesn't exist");
-        } else if (folder.isDirectory()) {
-            label.setIcon(getErrorIcon(label));
-            label.setToolTipText("Error: not a file");
+    private void setIfInvalidFile(JLabel label, File file) {
+        switch (VALIDITY.getStatus(file)) {
+            case MISSING:
+                label.setIcon(getErrorIcon(label));
+                label.setToolTipText("Error: file doesn't exist");
+                break;
+            case DIRECTORY:
+                label.setIcon(getErrorIcon(label));
+                label.setToolTipText("Error: not a file");
+                break;
         }
     }
 
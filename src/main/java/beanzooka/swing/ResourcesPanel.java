@@ -56,12 +56,15 @@ public final class ResourcesPanel extends javax.swing.JPanel {
     public static final String COPY_PATH_APPS_ACTION = "copyPathApps";
     public static final String COPY_PATH_JDKS_ACTION = "copyPathJdks";
     public static final String COPY_PATH_USER_DIRS_ACTION = "copyPathUserDirs";
+    public static final String SET_TEMP_BASE_DIR_ACTION = "setTempBaseDir";
+    public static final String RESET_TEMP_BASE_DIR_ACTION = "resetTempBaseDir";
     public static final String COPY_PATH_PLUGINS_ACTION = "copyPathPlugins";
     public static final String FILL_ACTION = "fill";
 
     private final EventShield shield;
     private Resources resources;
     private Optional<Configuration> configuration;
+    private File tempBaseDir;
 
     public ResourcesPanel() {
         this.shield = new EventShield();
@@ -84,6 +87,9 @@ public final class ResourcesPanel extends javax.swing.JPanel {
                 .selectedAppIndex(apps.getSelectedIndex() >= 0 ? apps.getSelectedIndex() : null)
                 .selectedJdkIndex(jdks.getSelectedIndex() >= 0 ? jdks.getSelectedIndex() : null)
                 .tempUserDirSelected(tempUserDir.isSelected())
+                .tempBaseDir(tempBaseDir)
+                .sharedPluginsSelected(sharedPlugins.isSelected())
+                .flightRecordingSelected(flightRecording.isSelected())
                 .selectedUserDirIndex(userDirs.getSelectedIndex() >= 0 ? userDirs.getSelectedIndex() : null);
         for (int idx : plugins.getSelectedIndices()) {
             builder.selectedPluginIndex(idx);
@@ -121,6 +127,9 @@ public final class ResourcesPanel extends javax.swing.JPanel {
         getActionMap().put(COPY_PATH_USER_DIRS_ACTION, new ComboCopyPath<>(UserDir::getFolder).toAction(userDirs));
         getActionMap().put(COPY_PATH_PLUGINS_ACTION, new ListCopyPath<>(Plugin::getFile).toAction(plugins));
 
+        getActionMap().put(SET_TEMP_BASE_DIR_ACTION, new SetTempBaseDir().toAction(this));
+        getActionMap().put(RESET_TEMP_BASE_DIR_ACTION, new ResetTempBaseDir().toAction(this));
+
         getActionMap().put(FILL_ACTION, new Fill().toAction(this));
 
         apps.setRenderer(JLists.cellRendererOf(Renderers::renderApp));
@@ -144,6 +153,9 @@ public final class ResourcesPanel extends javax.swing.JPanel {
         SwingUtil.addListDataListener(plugins, SwingUtil.listDataListenerOf(this::onPluginsDataChange));
 
         tempUserDir.addPropertyChangeListener("BUTTON.BP_CHECKBOX", event -> updateConfiguration());
+        tempUserDir.setComponentPopupMenu(getPopupMenu(SET_TEMP_BASE_DIR_ACTION, RESET_TEMP_BASE_DIR_ACTION));
+        sharedPlugins.addItemListener(shield.wrap(this::onSharedPluginsChange));
+        flightRecording.addItemListener(shield.wrap(this::onFlightRecordingChange));
 
         addPropertyChangeListener(RESOURCES_PROPERTY, shield.wrap(this::onResourcesChange));
         addPropertyChangeListener(CONFIGURATION_PROPERTY, shield.wrap(this::onConfigurationChange));
@@ -190,6 +202,14 @@ public final class ResourcesPanel extends javax.swing.JPanel {
         setResources(getResources().withPlugins(SwingUtil.listOf(plugins.getModel())));
     }
 
+    private void onSharedPluginsChange(ItemEvent event) {
+        updateConfiguration();
+    }
+
+    private void onFlightRecordingChange(ItemEvent event) {
+        updateConfiguration();
+    }
+
     private void onResourcesChange(PropertyChangeEvent event) {
         if (resources != null) {
             apps.setModel(SwingUtil.modelOf(resources.getApps()));
@@ -218,6 +238,7 @@ public final class ResourcesPanel extends javax.swing.JPanel {
             jdks.setSelectedIndex(jdks.getModel().getSize() > 0 ? 0 : -1);
         }
         tempUserDir.setSelected(r.isTempUserDirSelected());
+        setTempBaseDir(r.getTempBaseDir());
         if (r.getSelectedUserDirIndex() != null && r.getSelectedUserDirIndex() < userDirs.getModel().getSize()) {
             userDirs.setSelectedIndex(r.getSelectedUserDirIndex());
         } else {
@@ -229,6 +250,8 @@ public final class ResourcesPanel extends javax.swing.JPanel {
                     .toArray();
             plugins.setSelectedIndices(indices);
         }
+        sharedPlugins.setSelected(r.isSharedPluginsSelected());
+        flightRecording.setSelected(r.isFlightRecordingSelected());
     }
 
     private void onConfigurationChange(PropertyChangeEvent event) {
@@ -247,6 +270,13 @@ public final class ResourcesPanel extends javax.swing.JPanel {
         userDirs.setEnabled(enabled);
         tempUserDir.setEnabled(enabled);
         plugins.setEnabled(enabled);
+        sharedPlugins.setEnabled(enabled);
+        flightRecording.setEnabled(enabled);
+    }
+
+    private void setTempBaseDir(File tempBaseDir) {
+        this.tempBaseDir = tempBaseDir;
+        tempUserDir.setToolTipText(tempBaseDir != null ? "Base dir: " + tempBaseDir : null);
     }
 
     private void updateConfiguration() {
@@ -259,7 +289,10 @@ public final class ResourcesPanel extends javax.swing.JPanel {
                             .app((App) apps.getSelectedItem())
                             .jdk((Jdk) jdks.getSelectedItem())
                             .userDir(tempUserDir.isSelected() ? Optional.empty() : Optional.ofNullable((UserDir) userDirs.getSelectedItem()))
+                            .tempBaseDir(tempBaseDir)
                             .plugins(plugins.getSelectedValuesList())
+                            .sharedPlugins(sharedPlugins.isSelected())
+                            .flightRecording(flightRecording.isSelected())
                             .build())
             );
         } else {
@@ -325,6 +358,45 @@ public final class ResourcesPanel extends javax.swing.JPanel {
         }
     }
 
+    private static final class SetTempBaseDir extends JCommand<ResourcesPanel> {
+
+        @Override
+        public void execute(@NonNull ResourcesPanel c) {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            if (c.tempBaseDir != null) {
+                fileChooser.setSelectedFile(c.tempBaseDir);
+            }
+            JFileChoosers.getOpenFile(fileChooser, c).ifPresent(dir -> {
+                c.setTempBaseDir(dir);
+                c.updateConfiguration();
+            });
+        }
+
+        @Override
+        public JCommand.ActionAdapter toAction(@NonNull ResourcesPanel c) {
+            ActionAdapter result = super.toAction(c);
+            result.putValue(Action.NAME, "Set base dir...");
+            return result;
+        }
+    }
+
+    private static final class ResetTempBaseDir extends JCommand<ResourcesPanel> {
+
+        @Override
+        public void execute(@NonNull ResourcesPanel c) {
+            c.setTempBaseDir(null);
+            c.updateConfiguration();
+        }
+
+        @Override
+        public JCommand.ActionAdapter toAction(@NonNull ResourcesPanel c) {
+            ActionAdapter result = super.toAction(c);
+            result.putValue(Action.NAME, "Reset base dir");
+            return result;
+        }
+    }
+
     private static final class Fill extends JCommand<ResourcesPanel> {
 
         @Override
@@ -394,6 +466,7 @@ public final class ResourcesPanel extends javax.swing.JPanel {
             .enableFiller(true)
             .column("Label", String.class, Jdk::getLabel, Jdk::withLabel, Renderers.LABEL_DESCRIPTOR)
             .column("Java home", File.class, Jdk::getJavaHome, Jdk::withJavaHome, Renderers.FOLDER_DESCRIPTOR)
+            .column("Version", File.class, Jdk::getJavaHome, null, Renderers.JDK_INFO_DESCRIPTOR)
             .column("Options", String.class, Jdk::getOptions, Jdk::withOptions, Renderers.OPTIONS_DESCRIPTOR)
             .column("Clusters", List.class, Jdk::getClusters, Jdk::withClusters, Renderers.CLUSTERS_DESCRIPTOR)
             .build();
@@ -404,6 +477,9 @@ public final class ResourcesPanel extends javax.swing.JPanel {
             .column("Label", String.class, UserDir::getLabel, UserDir::withLabel, Renderers.LABEL_DESCRIPTOR)
             .column("Folder", File.class, UserDir::getFolder, UserDir::withFolder, Renderers.FOLDER_DESCRIPTOR)
             .column("Clone", Boolean.class, UserDir::isClone, UserDir::withClone, TableColumnDescriptor.EMPTY)
+            .column("Strategy", UserDir.CloneStrategy.class, UserDir::getCloneStrategy, UserDir::withCloneStrategy, Renderers.CLONE_STRATEGY_DESCRIPTOR)
+            .column("Immutables", String.class, UserDir::getImmutablePattern, UserDir::withImmutablePattern, Renderers.IMMUTABLE_PATTERN_DESCRIPTOR)
+            .column("Base dir", File.class, UserDir::getBaseDir, UserDir::withBaseDir, Renderers.BASE_DIR_DESCRIPTOR)
             .build();
 
     private static final ListTableDescriptor<Plugin> PLUGINS
@@ -433,6 +509,8 @@ public final class ResourcesPanel extends javax.swing.JPanel {
         jdks = new javax.swing.JComboBox<>();
         tempUserDir = new javax.swing.JCheckBox();
         jLabel3 = new javax.swing.JLabel();
+        sharedPlugins = new javax.swing.JCheckBox();
+        flightRecording = new javax.swing.JCheckBox();
 
         jScrollPane1.setViewportView(plugins);
 
@@ -449,6 +527,16 @@ public final class ResourcesPanel extends javax.swing.JPanel {
 
         jLabel3.setText("User dir:");
 
+        sharedPlugins.setText("shared");
+        sharedPlugins.setToolTipText("Reference the plugins as shared clusters instead of extracting them in the user dir");
+        sharedPlugins.setHorizontalTextPosition(javax.swing.SwingConstants.LEADING);
+        sharedPlugins.setMargin(new java.awt.Insets(0, 0, 0, 0));
+
+        flightRecording.setText("JFR");
+        flightRecording.setToolTipText("Record the sessions with Java Flight Recorder and summarize the recording on exit");
+        flightRecording.setHorizontalTextPosition(javax.swing.SwingConstants.LEADING);
+        flightRecording.setMargin(new java.awt.Insets(0, 0, 0, 0));
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
@@ -456,7 +544,10 @@ public final class ResourcesPanel extends javax.swing.JPanel {
                         .addGroup(layout.createSequentialGroup()
                                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
                                         .addComponent(jLabel1)
-                                        .addComponent(jLabel2)
+                                        .addGroup(layout.createSequentialGroup()
+                                                .addComponent(jLabel2)
+                                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                                                .addComponent(flightRecording))
                                         .addGroup(layout.createSequentialGroup()
                                                 .addComponent(jLabel3)
                                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, 175, Short.MAX_VALUE)
@@ -469,20 +560,24 @@ public final class ResourcesPanel extends javax.swing.JPanel {
                                         .addComponent(jScrollPane1, javax.swing.GroupLayout.DEFAULT_SIZE, 269, Short.MAX_VALUE)
                                         .addGroup(layout.createSequentialGroup()
                                                 .addComponent(jLabel5)
-                                                .addGap(0, 0, Short.MAX_VALUE))))
+                                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                                                .addComponent(sharedPlugins))))
         );
         layout.setVerticalGroup(
                 layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                         .addGroup(layout.createSequentialGroup()
                                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                                         .addComponent(jLabel1)
-                                        .addComponent(jLabel5))
+                                        .addComponent(jLabel5)
+                                        .addComponent(sharedPlugins))
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                 .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
                                         .addGroup(layout.createSequentialGroup()
                                                 .addComponent(apps, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
-                                                .addComponent(jLabel2)
+                                                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
+                                                        .addComponent(jLabel2)
+                                                        .addComponent(flightRecording))
                                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                                 .addComponent(jdks, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
@@ -498,6 +593,7 @@ public final class ResourcesPanel extends javax.swing.JPanel {
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JComboBox<App> apps;
+    private javax.swing.JCheckBox flightRecording;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
     private javax.swing.JLabel jLabel3;
@@ -505,6 +601,7 @@ public final class ResourcesPanel extends javax.swing.JPanel {
     private javax.swing.JScrollPane jScrollPane1;
     private javax.swing.JComboBox<beanzooka.core.Jdk> jdks;
     private javax.swing.JList<Plugin> plugins;
+    private javax.swing.JCheckBox sharedPlugins;
     private javax.swing.JCheckBox tempUserDir;
     private javax.swing.JComboBox<UserDir> userDirs;
     // End of variables declaration//GEN-END:variables
@@ -17,11 +17,28 @@
 package beanzooka.swing;
 
 import beanzooka.core.Configuration;
+import beanzooka.core.Fingerprint;
+import beanzooka.core.FlightRecording;
+import beanzooka.core.LaunchListener;
+import beanzooka.core.LaunchQueue;
+import beanzooka.core.ModuleCache;
+import beanzooka.core.ProcessMonitor;
+import beanzooka.core.RingBuffer;
+import beanzooka.core.SessionEngine;
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
-import javax.swing.SwingWorker;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
 
 /**
  *
@@ -29,54 +46,294 @@ import javax.swing.SwingWorker;
  */
 public class Session {
 
+    public enum State {
+        PENDING, PREPARING, STARTED, DONE
+    }
+
+    public static final String STATE_PROPERTY = "state";
+    public static final String PROGRESS_PROPERTY = "progress";
+    public static final String USAGE_PROPERTY = "usage";
+    public static final String RECORDING_PROPERTY = "recording";
+    public static final String FINGERPRINT_PROPERTY = "fingerprint";
+
+    private static final int TAIL_CAPACITY = 64 * 1024;
+
     @lombok.Getter
     private final Configuration configuration;
 
     @lombok.Getter
-    private final File workingDir;
+    private File workingDir;
 
     private final PropertyChangeSupport propertyChangeSupport;
-    private SwingWorker<Void, Void> worker;
 
+    @lombok.Getter
+    private State state;
+
+    @lombok.Getter
+    private final RingBuffer output = new RingBuffer(TAIL_CAPACITY);
+
+    @lombok.Getter
+    private final RingBuffer error = new RingBuffer(TAIL_CAPACITY);
+
+    @lombok.Getter
+    private volatile LaunchListener.Stage stage;
+
+    private final AtomicLong bytesCopied = new AtomicLong();
+    private final AtomicLong entriesExtracted = new AtomicLong();
+
+    /**
+     * Time spent extracting the plugins of the last preparation, negative if unknown.
+     */
+    @lombok.Getter
+    private volatile long extractionMillis = -1;
+    private final AtomicBoolean progressPending = new AtomicBoolean();
+    private CompletableFuture<File> preparation;
+    private CompletableFuture<Void> queued;
+    private ProcessMonitor.Watch monitor;
+
+    /**
+     * Summary of the flight recording of the last run, null if not recorded.
+     */
+    @lombok.Getter
+    private CompletableFuture<FlightRecording.Summary> recording;
+
+    /**
+     * Fingerprint of the configuration, null until it is computed in background.
+     */
+    @lombok.Getter
+    private Fingerprint fingerprint;
+
+    /**
+     * Whether the last run left module caches that can be captured, checked once when it exits.
+     */
+    @lombok.Getter
+    private boolean moduleCacheAvailable;
+
+    public Session(Configuration configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * Creates a session whose working dir is already prepared.
+     */
     public Session(Configuration configuration, File workingDir) {
         this.configuration = configuration;
         this.workingDir = workingDir;
         this.propertyChangeSupport = new PropertyChangeSupport(this);
+        this.state = State.PENDING;
+        // fingerprints read every file of the configuration and must therefore stay off the EDT
+        CompletableFuture
+                .supplyAsync(configuration::getFingerprint)
+                .thenAcceptAsync(this::setFingerprint, SwingUtilities::invokeLater);
     }
 
     public void execute() {
-        if (worker == null || worker.getState() == SwingWorker.StateValue.DONE) {
-            this.worker = new SwingWorker<Void, Void>() {
+        if (state == State.PENDING || state == State.DONE) {
+            if (workingDir == null) {
+                prepare();
+            } else {
+                launch();
+            }
+        }
+    }
+
+    /**
+     * Executes this session from any thread.
+     *
+     * @return a future completed when this session is done
+     */
+    public CompletableFuture<Void> submit() {
+        return submit(false);
+    }
+
+    /**
+     * Executes this session through a launch queue.
+     * The session stays pending until the queue starts it, and can be cancelled meanwhile.
+     *
+     * @param queue a queue
+     */
+    public void enqueue(LaunchQueue queue) {
+        queued = queue.submit(() -> submit(true));
+    }
+
+    /**
+     * Checks if this session is waiting in a launch queue.
+     */
+    public boolean isQueued() {
+        return queued != null;
+    }
+
+    private CompletableFuture<Void> submit(boolean fromQueue) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        SwingUtilities.invokeLater(() -> {
+            if (fromQueue) {
+                if (queued == null) {
+                    // cancelled while queued
+                    result.complete(null);
+                    return;
+                }
+                queued = null;
+            }
+            PropertyChangeListener onDone = new PropertyChangeListener() {
                 @Override
-                protected Void doInBackground() {
-                    try {
-                        configuration.launch(workingDir);
-                    } catch (Exception ex) {
-                        ex.printStackTrace();
+                public void propertyChange(PropertyChangeEvent event) {
+                    if (STATE_PROPERTY.equals(event.getPropertyName()) && event.getNewValue() == State.DONE) {
+                        removePropertyChangeListener(this);
+                        result.complete(null);
                     }
-                    return null;
                 }
             };
-            worker.addPropertyChangeListener(o -> {
-                switch (o.getPropertyName()) {
-                    case "state":
-                        propertyChangeSupport.firePropertyChange(o.getPropertyName(), o.getOldValue(), o.getNewValue());
-                        break;
+            addPropertyChangeListener(onDone);
+            execute();
+            if (state == State.PENDING || state == State.DONE) {
+                removePropertyChangeListener(onDone);
+                result.complete(null);
+            }
+        });
+        return result;
+    }
+
+    public void cancel() {
+        if (state == State.PREPARING) {
+            preparation.cancel(true);
+        } else if (queued != null) {
+            queued.cancel(true);
+            queued = null;
+            setState(State.DONE);
+        }
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied.get();
+    }
+
+    public long getEntriesExtracted() {
+        return entriesExtracted.get();
+    }
+
+    /**
+     * Gets the latest resource usage of the process tree while it is running.
+     */
+    public ProcessMonitor.Sample getUsage() {
+        return state == State.STARTED && monitor != null ? monitor.getLatest() : null;
+    }
+
+    public List<ProcessMonitor.Sample> getUsageHistory() {
+        return state == State.STARTED && monitor != null ? monitor.getHistory() : Collections.emptyList();
+    }
+
+    private void prepare() {
+        bytesCopied.set(0);
+        entriesExtracted.set(0);
+        extractionMillis = -1;
+        setState(State.PREPARING);
+        preparation = SessionEngine.DEFAULT.prepare(configuration, new Progress());
+        preparation.whenCompleteAsync(this::onPrepared, SwingUtilities::invokeLater);
+    }
+
+    private void onPrepared(File result, Throwable ex) {
+        if (ex == null) {
+            workingDir = result;
+            launch();
+        } else {
+            setState(State.DONE);
+            Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+            if (!(cause instanceof CancellationException)) {
+                MainPanel.reportException(cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+            }
+        }
+    }
+
+    private void launch() {
+        stage = LaunchListener.Stage.START_PROCESS;
+        output.clear();
+        error.clear();
+        monitor = null;
+        recording = null;
+        moduleCacheAvailable = false;
+        File dir = workingDir;
+        try {
+            SessionEngine.DEFAULT
+                    .launch(configuration, workingDir, output, error, this::monitor)
+                    // checked off the EDT since the working dir may be on a slow drive
+                    .handle((exitValue, ex) -> Files.isDirectory(ModuleCache.resolveCacheDir(dir)))
+                    .whenCompleteAsync((hasModuleCache, ex) -> onExit(Boolean.TRUE.equals(hasModuleCache)), SwingUtilities::invokeLater);
+            setState(State.STARTED);
+        } catch (IOException ex) {
+            setState(State.DONE);
+            MainPanel.reportException(ex);
+        }
+    }
+
+    private void onExit(boolean hasModuleCache) {
+        moduleCacheAvailable = hasModuleCache;
+        if (configuration.isFlightRecording()) {
+            File file = FlightRecording.resolveRecordingFile(workingDir);
+            recording = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return FlightRecording.summarize(file.toPath());
+                } catch (IOException ex) {
+                    throw new CompletionException(ex);
                 }
             });
-            worker.execute();
+            recording.whenCompleteAsync((summary, ex) -> propertyChangeSupport.firePropertyChange(RECORDING_PROPERTY, null, summary), SwingUtilities::invokeLater);
         }
+        setState(State.DONE);
     }
 
-    public SwingWorker.StateValue getState() {
-        return worker != null ? worker.getState() : SwingWorker.StateValue.PENDING;
+    private void monitor(ProcessHandle process) {
+        monitor = ProcessMonitor.DEFAULT.watch(process, sample -> SwingUtilities.invokeLater(() -> propertyChangeSupport.firePropertyChange(USAGE_PROPERTY, null, sample)));
+    }
+
+    private void setFingerprint(Fingerprint fingerprint) {
+        propertyChangeSupport.firePropertyChange(FINGERPRINT_PROPERTY, this.fingerprint, this.fingerprint = fingerprint);
+    }
+
+    private void setState(State state) {
+        propertyChangeSupport.firePropertyChange(STATE_PROPERTY, this.state, this.state = state);
+    }
+
+    private void fireProgressChange() {
+        if (progressPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                progressPending.set(false);
+                propertyChangeSupport.firePropertyChange(PROGRESS_PROPERTY, null, null);
+            });
+        }
     }
 
     public void addPropertyChangeListener(PropertyChangeListener listener) {
         propertyChangeSupport.addPropertyChangeListener(listener);
     }
 
-    public static Session of(Configuration configuration) throws IOException {
-        return new Session(configuration, configuration.init());
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.removePropertyChangeListener(listener);
+    }
+
+    private final class Progress implements LaunchListener {
+
+        @Override
+        public void onStage(Stage stage) {
+            Session.this.stage = stage;
+            fireProgressChange();
+        }
+
+        @Override
+        public void onBytesCopied(long bytes) {
+            bytesCopied.addAndGet(bytes);
+            fireProgressChange();
+        }
+
+        @Override
+        public void onEntriesExtracted(int entries) {
+            entriesExtracted.addAndGet(entries);
+            fireProgressChange();
+        }
+
+        @Override
+        public void onPluginsExtracted(int plugins, long millis) {
+            extractionMillis = millis;
+            fireProgressChange();
+        }
     }
 }
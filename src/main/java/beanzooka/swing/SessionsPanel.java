@@ -17,7 +17,12 @@
 package beanzooka.swing;
 
 import beanzooka.core.App;
+import beanzooka.core.Fingerprint;
+import beanzooka.core.FlightRecording;
 import beanzooka.core.Jdk;
+import beanzooka.core.ModuleCache;
+import beanzooka.core.RingBuffer;
+import beanzooka.core.TempDirs;
 import beanzooka.core.UserDir;
 import ec.util.grid.swing.XTable;
 import ec.util.table.swing.JTables;
@@ -27,10 +32,16 @@ import internal.swing.SwingUtil;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * @author Philippe Charles
@@ -40,6 +51,10 @@ public final class SessionsPanel extends javax.swing.JPanel {
     public static final String OPEN_WORKING_DIR_ACTION = "openWorkingDir";
     public static final String OPEN_LOGS_ACTION = "openLogs";
     public static final String RELAUNCH_ACTION = "relaunch";
+    public static final String SHOW_OUTPUT_ACTION = "showOutput";
+    public static final String CANCEL_ACTION = "cancel";
+    public static final String REMOVE_ACTION = "remove";
+    public static final String CAPTURE_CACHE_ACTION = "captureCache";
 
     private final SessionTableModel sessionModel;
 
@@ -71,14 +86,30 @@ public final class SessionsPanel extends javax.swing.JPanel {
         Relaunch relaunch = new Relaunch();
         getActionMap().put(RELAUNCH_ACTION, relaunch.toAction(sessions));
 
+        ShowOutput showOutput = new ShowOutput();
+        getActionMap().put(SHOW_OUTPUT_ACTION, showOutput.toAction(sessions));
+
+        Cancel cancel = new Cancel();
+        getActionMap().put(CANCEL_ACTION, cancel.toAction(sessions));
+
+        Remove remove = new Remove();
+        getActionMap().put(REMOVE_ACTION, remove.toAction(sessions));
+
+        CaptureCache captureCache = new CaptureCache();
+        getActionMap().put(CAPTURE_CACHE_ACTION, captureCache.toAction(sessions));
+
         ((XTable) sessions).setNoDataRenderer(new XTable.DefaultNoDataRenderer(""));
-        sessions.setDefaultRenderer(SwingWorker.StateValue.class, JTables.cellRendererOf(Renderers::renderState));
+        sessions.setDefaultRenderer(Session.class, JTables.cellRendererOf(Renderers::renderState));
         sessions.setDefaultRenderer(App.class, JTables.cellRendererOf(Renderers::renderApp));
         sessions.setDefaultRenderer(Jdk.class, JTables.cellRendererOf(Renderers::renderJdk));
+        sessions.setDefaultRenderer(Fingerprint.class, JTables.cellRendererOf(Renderers::renderFingerprint));
         sessions.setDefaultRenderer(File.class, JTables.cellRendererOf(Renderers::renderFolder));
         sessions.setComponentPopupMenu(getSessionsMenu().getPopupMenu());
         SwingUtil.onDoubleClick(sessions, openWorkingDir);
-        JTables.setWidthAsPercentages(sessions, .10, .15, .15, .60);
+        sessions.getColumnModel().getColumn(5).setCellRenderer(Renderers.CPU_RENDERER);
+        sessions.getColumnModel().getColumn(6).setCellRenderer(Renderers.MEMORY_RENDERER);
+        sessions.getColumnModel().getColumn(7).setCellRenderer(Renderers.THREADS_RENDERER);
+        JTables.setWidthAsPercentages(sessions, .10, .12, .12, .08, .32, .08, .10, .08);
     }
 
     private JMenu getSessionsMenu() {
@@ -86,7 +117,12 @@ public final class SessionsPanel extends javax.swing.JPanel {
         JMenu result = new JMenu();
         result.add(am.get(OPEN_WORKING_DIR_ACTION)).setText("Open user dir location");
         result.add(am.get(OPEN_LOGS_ACTION)).setText("Open logs location");
+        result.add(am.get(SHOW_OUTPUT_ACTION)).setText("Show details");
         result.add(am.get(RELAUNCH_ACTION)).setText("Relaunch");
+        result.add(am.get(CANCEL_ACTION)).setText("Cancel");
+        result.add(am.get(REMOVE_ACTION)).setText("Remove");
+        result.addSeparator();
+        result.add(am.get(CAPTURE_CACHE_ACTION)).setText("Capture cache");
         return result;
     }
 
@@ -144,7 +180,7 @@ public final class SessionsPanel extends javax.swing.JPanel {
         @Override
         protected Optional<File> getFile(JTable c) {
             return c.getSelectedRowCount() == 1
-                    ? Optional.of(((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).getWorkingDir())
+                    ? Optional.ofNullable(((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).getWorkingDir())
                     : Optional.empty();
         }
 
@@ -160,7 +196,7 @@ public final class SessionsPanel extends javax.swing.JPanel {
         @Override
         protected Optional<File> getFile(JTable c) {
             return c.getSelectedRowCount() == 1
-                    ? Optional.of(((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).getWorkingDir()).map(UserDir::resolveLogFile)
+                    ? Optional.ofNullable(((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).getWorkingDir()).map(UserDir::resolveLogFile)
                     : Optional.empty();
         }
 
@@ -176,7 +212,7 @@ public final class SessionsPanel extends javax.swing.JPanel {
         @Override
         public boolean isEnabled(JTable c) {
             return c.getSelectedRowCount() == 1
-                    && ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).getState() == SwingWorker.StateValue.DONE;
+                    && ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).getState() == Session.State.DONE;
         }
 
         @Override
@@ -192,22 +228,175 @@ public final class SessionsPanel extends javax.swing.JPanel {
         }
     }
 
+    private static final class Cancel extends JCommand<JTable> {
+
+        @Override
+        public boolean isEnabled(JTable c) {
+            if (c.getSelectedRowCount() != 1) {
+                return false;
+            }
+            Session session = ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow());
+            return session.getState() == Session.State.PREPARING || session.isQueued();
+        }
+
+        @Override
+        public void execute(JTable c) {
+            ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow()).cancel();
+        }
+
+        @Override
+        public JCommand.ActionAdapter toAction(JTable c) {
+            return super.toAction(c)
+                    .withWeakTableModelListener(c.getModel())
+                    .withWeakListSelectionListener(c.getSelectionModel());
+        }
+    }
+
+    private static final class Remove extends JCommand<JTable> {
+
+        @Override
+        public boolean isEnabled(JTable c) {
+            if (c.getSelectedRowCount() != 1) {
+                return false;
+            }
+            Session session = ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow());
+            return session.getState() == Session.State.DONE || session.isQueued();
+        }
+
+        @Override
+        public void execute(JTable c) {
+            Session session = ((SessionTableModel) c.getModel()).remove(c.getSelectedRow());
+            session.cancel();
+            if (TempDirs.DEFAULT.isTemporary(session.getWorkingDir())) {
+                TempDirs.DEFAULT.delete(session.getWorkingDir());
+            }
+        }
+
+        @Override
+        public JCommand.ActionAdapter toAction(JTable c) {
+            return super.toAction(c)
+                    .withWeakTableModelListener(c.getModel())
+                    .withWeakListSelectionListener(c.getSelectionModel());
+        }
+    }
+
+    private static final class CaptureCache extends JCommand<JTable> {
+
+        @Override
+        public boolean isEnabled(JTable c) {
+            if (c.getSelectedRowCount() != 1) {
+                return false;
+            }
+            Session session = ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow());
+            return session.getState() == Session.State.DONE && session.isModuleCacheAvailable();
+        }
+
+        @Override
+        public void execute(JTable c) {
+            Session session = ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow());
+            new SwingWorker<Boolean, Void>() {
+                @Override
+                protected Boolean doInBackground() throws Exception {
+                    return ModuleCache.DEFAULT.capture(session.getConfiguration(), session.getWorkingDir());
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        get();
+                    } catch (InterruptedException | ExecutionException ex) {
+                        JOptionPane.showMessageDialog(c, ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage(), "Capture cache", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        }
+
+        @Override
+        public JCommand.ActionAdapter toAction(JTable c) {
+            return super.toAction(c)
+                    .withWeakTableModelListener(c.getModel())
+                    .withWeakListSelectionListener(c.getSelectionModel());
+        }
+    }
+
+    private static final class ShowOutput extends JCommand<JTable> {
+
+        @Override
+        public boolean isEnabled(JTable c) {
+            return c.getSelectedRowCount() == 1;
+        }
+
+        @Override
+        public void execute(JTable c) {
+            Session session = ((SessionTableModel) c.getModel()).getRow(c.getSelectedRow());
+            JTabbedPane tabs = new JTabbedPane();
+            tabs.addTab("Output", newTailPane(session.getOutput()));
+            tabs.addTab("Error", newTailPane(session.getError()));
+            if (session.getRecording() != null) {
+                tabs.addTab("Profile", newRecordingPane(session.getRecording()));
+            }
+            JOptionPane.showMessageDialog(c, tabs, session.getConfiguration().getApp().getLabel(), JOptionPane.PLAIN_MESSAGE);
+        }
+
+        private static JScrollPane newTailPane(RingBuffer tail) {
+            return newTextPane(new JTextArea(tail.toString(Charset.defaultCharset())));
+        }
+
+        private static JScrollPane newRecordingPane(CompletableFuture<FlightRecording.Summary> recording) {
+            JTextArea text = new JTextArea("Reading recording...");
+            recording.whenCompleteAsync((summary, ex) -> text.setText(summary != null
+                    ? Renderers.formatRecording(summary)
+                    : "Failed to read recording: " + (ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage())
+            ), SwingUtilities::invokeLater);
+            return newTextPane(text);
+        }
+
+        private static JScrollPane newTextPane(JTextArea text) {
+            text.setEditable(false);
+            text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, text.getFont().getSize()));
+            JScrollPane result = new JScrollPane(text);
+            result.setPreferredSize(new Dimension(500, 300));
+            return result;
+        }
+
+        @Override
+        public JCommand.ActionAdapter toAction(JTable c) {
+            return super.toAction(c)
+                    .withWeakListSelectionListener(c.getSelectionModel());
+        }
+    }
+
     private static final class SessionTableModel extends AbstractTableModel {
 
         private final List<Session> list = new ArrayList<>();
+        private final PropertyChangeListener onSessionChange = this::onSessionChange;
 
         public boolean isRunning() {
             return list.stream()
-                    .anyMatch(session -> !session.getState().equals(SwingWorker.StateValue.DONE));
+                    .anyMatch(session -> !session.getState().equals(Session.State.DONE));
         }
 
         public void add(Session session) {
             final int index = list.size();
             list.add(session);
-            session.addPropertyChangeListener(o -> fireTableRowsUpdated(index, index));
+            session.addPropertyChangeListener(onSessionChange);
             fireTableRowsInserted(index, index);
         }
 
+        public Session remove(int rowIndex) {
+            Session result = list.remove(rowIndex);
+            result.removePropertyChangeListener(onSessionChange);
+            fireTableRowsDeleted(rowIndex, rowIndex);
+            return result;
+        }
+
+        private void onSessionChange(PropertyChangeEvent event) {
+            int index = list.indexOf(event.getSource());
+            if (index != -1) {
+                fireTableRowsUpdated(index, index);
+            }
+        }
+
         public Session getRow(int rowIndex) {
             return list.get(rowIndex);
         }
@@ -219,7 +408,7 @@ public final class SessionsPanel extends javax.swing.JPanel {
 
         @Override
         public int getColumnCount() {
-            return 4;
+            return 8;
         }
 
         @Override
@@ -227,13 +416,19 @@ public final class SessionsPanel extends javax.swing.JPanel {
             Session session = getRow(rowIndex);
             switch (columnIndex) {
                 case 0:
-                    return session.getState();
+                    return session;
                 case 1:
                     return session.getConfiguration().getApp();
                 case 2:
                     return session.getConfiguration().getJdk();
                 case 3:
+                    return session.getFingerprint();
+                case 4:
                     return session.getWorkingDir();
+                case 5:
+                case 6:
+                case 7:
+                    return session;
             }
             return null;
         }
@@ -248,7 +443,15 @@ public final class SessionsPanel extends javax.swing.JPanel {
                 case 2:
                     return "Jdk";
                 case 3:
+                    return "Config";
+                case 4:
                     return "User dir";
+                case 5:
+                    return "CPU";
+                case 6:
+                    return "Memory";
+                case 7:
+                    return "Threads";
             }
             return super.getColumnName(column);
         }
@@ -257,13 +460,20 @@ public final class SessionsPanel extends javax.swing.JPanel {
         public Class<?> getColumnClass(int columnIndex) {
             switch (columnIndex) {
                 case 0:
-                    return SwingWorker.StateValue.class;
+                    return Session.class;
                 case 1:
                     return App.class;
                 case 2:
                     return Jdk.class;
                 case 3:
+                    return Fingerprint.class;
+                case 4:
                     return File.class;
+                case 5:
+                case 6:
+                case 7:
+                    // rendered by column from the usage history of the session
+                    return Object.class;
             }
             return super.getColumnClass(columnIndex);
         }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package beanzooka.swing;
+
+import beanzooka.About;
+import com.formdev.flatlaf.FlatLightLaf;
+import ec.util.various.swing.BasicSwingLauncher;
+import org.jspecify.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Opens the main window.
+ * Kept apart from the entry point so that the headless mode never loads AWT classes.
+ */
+@lombok.experimental.UtilityClass
+public class SwingLauncher {
+
+    public void launch(@Nullable File resources) {
+        FlatLightLaf.setup();
+
+        new BasicSwingLauncher()
+                .lookAndFeel(FlatLightLaf.class.getName())
+                .content(() -> createContent(resources))
+                .title(About.getName() + " " + About.getVersion())
+                .icons(SwingLauncher::getIcons)
+                .size(600, 400)
+                .launch();
+    }
+
+    private Component createContent(File file) {
+        MainPanel result = new MainPanel();
+        result.reload(file);
+        return result;
+    }
+
+    private List<? extends Image> getIcons() {
+        return IntStream.of(256, 128, 64, 48, 32, 16)
+                .mapToObj(size -> "/beanzooka/beanzooka_redux_" + size + ".png")
+                .map(SwingLauncher.class::getResource)
+                .map(ImageIcon::new)
+                .map(ImageIcon::getImage)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.swing;
+
+import ec.util.completion.swing.FileListCellRenderer;
+import lombok.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileSystemView;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Loads the system icons of files on a bounded pool of daemon threads shared by the whole application.
+ * Concurrent requests of the same file are merged and loaded icons are kept in a LRU cache.
+ * Files without icon are cached too so that they are not loaded again on each paint.
+ */
+@lombok.extern.java.Log
+public final class FileIconLoader {
+
+    public static final FileIconLoader DEFAULT = new FileIconLoader(2, 256, 512, FileIconLoader::loadSystemIcon);
+
+    private static final Icon NO_ICON = new ImageIcon();
+
+    private final ThreadPoolExecutor executor;
+    private final Function<? super File, ? extends Icon> loader;
+    private final Map<File, Icon> cache;
+    private final Set<File> pending = ConcurrentHashMap.newKeySet();
+
+    FileIconLoader(int threads, int queueCapacity, int cacheSize, Function<? super File, ? extends Icon> loader) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), newDaemonThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.loader = loader;
+        this.cache = new LinkedHashMap<File, Icon>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, Icon> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached icon of a file or schedules its loading.
+     *
+     * @param file     a non-null file
+     * @param onLoaded a non-null callback called from a loading thread once the icon is in the cache, never called if the file has no icon
+     * @return the cached icon, null if not loaded yet or if the file has no icon
+     */
+    public @Nullable Icon getIcon(@NonNull File file, @NonNull Runnable onLoaded) {
+        File key = file.getAbsoluteFile();
+        synchronized (cache) {
+            Icon result = cache.get(key);
+            if (result != null) {
+                return result != NO_ICON ? result : null;
+            }
+        }
+        if (pending.add(key)) {
+            try {
+                executor.execute(() -> load(key, onLoaded));
+            } catch (RejectedExecutionException ex) {
+                // queue is full, the file will be requested again on the next paint
+                pending.remove(key);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of files waiting to be loaded.
+     *
+     * @return a non-negative number
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getCacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Creates a renderer of auto-completion lists that never waits for icons.
+     *
+     * @return a non-null renderer
+     */
+    public @NonNull FileListCellRenderer newListCellRenderer() {
+        return new CachedFileListCellRenderer();
+    }
+
+    private void load(File file, Runnable onLoaded) {
+        Icon icon = null;
+        try {
+            icon = loader.apply(file);
+        } catch (RuntimeException ex) {
+            log.log(Level.FINE, "Failed to load icon of " + file, ex);
+        }
+        synchronized (cache) {
+            cache.put(file, icon != null ? icon : NO_ICON);
+        }
+        pending.remove(file);
+        if (icon != null) {
+            onLoaded.run();
+        }
+    }
+
+    private static Icon loadSystemIcon(File file) {
+        return FileSystemView.getFileSystemView().getSystemIcon(file);
+    }
+
+    private static ThreadFactory newDaemonThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread result = new Thread(runnable, "beanzooka-icons-" + count.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        };
+    }
+
+    private final class CachedFileListCellRenderer extends FileListCellRenderer {
+
+        private CachedFileListCellRenderer() {
+            // the executor is only used by the default implementation of toIcon
+            super(executor);
+        }
+
+        @Override
+        protected Icon toIcon(String term, JList list, File value, int index, boolean isSelected, boolean cellHasFocus) {
+            setToolTipText(value.getPath());
+            return FileIconLoader.this.getIcon(value, () -> SwingUtilities.invokeLater(list::repaint));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 National Bank of Belgium
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon they will be approved
+ * by the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * http://ec.europa.eu/idabc/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package internal.swing;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+import java.util.function.Function;
+
+/**
+ * Renders a value as text on top of a small line chart of its recent history.
+ * The chart is scaled from zero to the maximum of the history.
+ *
+ * @param <T> the type of the cell values
+ */
+public final class SparklineCellRenderer<T> extends DefaultTableCellRenderer {
+
+    private static final double[] NO_HISTORY = new double[0];
+
+    private final Class<T> type;
+    private final Function<? super T, String> toText;
+    private final Function<? super T, double[]> toHistory;
+    private double[] history = NO_HISTORY;
+
+    public SparklineCellRenderer(Class<T> type, Function<? super T, String> toText, Function<? super T, double[]> toHistory) {
+        this.type = type;
+        this.toText = toText;
+        this.toHistory = toHistory;
+        setHorizontalAlignment(SwingConstants.TRAILING);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+        T cell = type.isInstance(value) ? type.cast(value) : null;
+        super.getTableCellRendererComponent(table, cell != null ? toText.apply(cell) : null, isSelected, hasFocus, row, column);
+        history = cell != null ? toHistory.apply(cell) : NO_HISTORY;
+        return this;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (history.length < 2) {
+            return;
+        }
+        double max = 0;
+        for (double value : history) {
+            max = Math.max(max, value);
+        }
+        if (max <= 0) {
+            return;
+        }
+        Insets insets = getInsets();
+        int width = getWidth() - insets.left - insets.right;
+        int height = getHeight() - insets.top - insets.bottom - 2;
+        int[] xs = new int[history.length];
+        int[] ys = new int[history.length];
+        for (int i = 0; i < history.length; i++) {
+            xs[i] = insets.left + (int) Math.round((double) i * width / (history.length - 1));
+            ys[i] = insets.top + 1 + height - (int) Math.round(history[i] / max * height);
+        }
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Color color = getForeground();
+            g2.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 96));
+            g2.drawPolyline(xs, ys, history.length);
+        } finally {
+            g2.dispose();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package beanzooka.cli;
+
+import beanzooka.core.App;
+import beanzooka.core.Jdk;
+import beanzooka.core.Resources;
+import beanzooka.core.TempDirs;
+import beanzooka.io.XmlResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeadlessLauncherTest {
+
+    @Test
+    void resolveByLabelOrIndex(@TempDir Path temp) {
+        Resources resources = Resources
+                .builder()
+                .app(App.builder().label("app1").file(temp.resolve("app1").toFile()).build())
+                .app(App.builder().label("app2").file(temp.resolve("app2").toFile()).build())
+                .jdk(Jdk.builder().label("jdk1").javaHome(temp.resolve("jdk1").toFile()).build())
+                .selectedAppIndex(1)
+                .build();
+
+        assertThat(HeadlessLauncher.resolve(resources, Options.parse(new String[]{"r.xml"})))
+                .extracting(o -> o.getApp().getLabel())
+                .containsExactly("app2");
+
+        assertThat(HeadlessLauncher.resolve(resources, Options.parse(new String[]{"r.xml", "--app", "app1", "--app", "1", "--jdk", "jdk1", "--count", "2"})))
+                .extracting(o -> o.getApp().getLabel() + "/" + o.getJdk().getLabel())
+                .containsExactly("app1/jdk1", "app1/jdk1", "app2/jdk1", "app2/jdk1");
+    }
+
+    @Test
+    void usageErrors(@TempDir Path temp) throws IOException {
+        Path resources = temp.resolve("resources.xml");
+        XmlResources.write(resources, Resources.builder().build());
+
+        assertThat(run("--count", "0", resources.toString()).exitCode).isEqualTo(HeadlessLauncher.EXIT_USAGE);
+        assertThat(run("--unknown").exitCode).isEqualTo(HeadlessLauncher.EXIT_USAGE);
+        assertThat(run(resources.toString()).exitCode).isEqualTo(HeadlessLauncher.EXIT_USAGE);
+        assertThat(run(temp.resolve("missing.xml").toString()).exitCode).isEqualTo(HeadlessLauncher.EXIT_USAGE);
+        assertThat(run("--help").exitCode).isEqualTo(HeadlessLauncher.EXIT_SUCCESS);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void launch(@TempDir Path temp) throws IOException {
+        Path resources = temp.resolve("resources.xml");
+        XmlResources.write(resources, Resources
+                .builder()
+                .app(App.builder().label("ok").file(createScript(temp.resolve("ok"), 0).toFile()).build())
+                .app(App.builder().label("ko").file(createScript(temp.resolve("ko"), 3).toFile()).build())
+                .jdk(Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).build())
+                .build());
+
+        Result ok = run(resources.toString(), "--app", "ok", "--count", "2", "--parallel", "2");
+        assertThat(ok.exitCode).isEqualTo(HeadlessLauncher.EXIT_SUCCESS);
+        assertThat(ok.lines)
+                .filteredOn(line -> line.startsWith("{\"event\":\"exited\""))
+                .hasSize(2)
+                .allMatch(line -> line.contains("\"exitValue\":0"));
+        assertThat(ok.lines).last().asString().isEqualTo("{\"event\":\"summary\",\"sessions\":2,\"failed\":0}");
+
+        Result ko = run(resources.toString(), "--app", "ok", "--app", "ko");
+        assertThat(ko.exitCode).isEqualTo(HeadlessLauncher.EXIT_FAILURE);
+        assertThat(ko.lines).last().asString().isEqualTo("{\"event\":\"summary\",\"sessions\":2,\"failed\":1}");
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void benchmark(@TempDir Path temp) throws IOException {
+        Path app = temp.resolve("app");
+        Files.write(app, Arrays.asList("#!/bin/sh", "mkdir -p \"$2/var/log\"", "echo ready >> \"$2/var/log/messages.log\"", "sleep 60"), UTF_8);
+        Files.setPosixFilePermissions(app, PosixFilePermissions.fromString("rwxr-xr-x"));
+        Path resources = temp.resolve("resources.xml");
+        XmlResources.write(resources, Resources
+                .builder()
+                .app(App.builder().label("app").file(app.toFile()).build())
+                .jdk(Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).build())
+                .tempUserDirSelected(true)
+                .build());
+        Path csv = temp.resolve("results.csv");
+
+        Result result = run(resources.toString(), "--benchmark", "2", "--warmups", "1", "--startup-pattern", "^ready$", "--output", csv.toString());
+        assertThat(result.exitCode).isEqualTo(HeadlessLauncher.EXIT_SUCCESS);
+        assertThat(result.lines)
+                .filteredOn(line -> line.startsWith("{\"event\":\"run\""))
+                .hasSize(3);
+        assertThat(result.lines).last().asString()
+                .startsWith("{\"event\":\"benchmark\"")
+                .contains("\"failed\":0", "\"startup\":{\"count\":2,");
+        assertThat(Files.readAllLines(csv, UTF_8))
+                .hasSize(2)
+                .first().asString().startsWith("app,jdk,plugins,fingerprint,runs,failed,");
+
+        assertThat(run(resources.toString(), "--benchmark", "1", "--startup-pattern", "(").exitCode).isEqualTo(HeadlessLauncher.EXIT_USAGE);
+    }
+
+    @Test
+    void initOnlyKeepsWorkingDir(@TempDir Path temp) throws IOException {
+        Path resources = temp.resolve("resources.xml");
+        XmlResources.write(resources, Resources
+                .builder()
+                .app(App.builder().label("app").file(temp.resolve("app").toFile()).build())
+                .jdk(Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).build())
+                .tempUserDirSelected(true)
+                .tempBaseDir(temp.toFile())
+                .build());
+
+        Result result = run(resources.toString(), "--init-only");
+        assertThat(result.exitCode).isEqualTo(HeadlessLauncher.EXIT_SUCCESS);
+
+        String prepared = result.lines.stream().filter(line -> line.startsWith("{\"event\":\"prepared\"")).findFirst().orElseThrow(AssertionError::new);
+        Matcher matcher = Pattern.compile("\"workingDir\":\"((?:[^\"\\\\]|\\\\.)*)\"").matcher(prepared);
+        assertThat(matcher.find()).isTrue();
+        File workingDir = new File(matcher.group(1).replace("\\\\", "\\"));
+        assertThat(workingDir).isDirectory().hasParent(temp.toFile());
+        // neither deleted at exit nor reaped later on
+        assertThat(TempDirs.DEFAULT.isTemporary(workingDir)).isFalse();
+        assertThat(workingDir.toPath().resolve(".beanzooka.lock")).doesNotExist();
+    }
+
+    @Test
+    void toJson() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("text", "a\"b\\c\nd\u0001");
+        fields.put("number", 42);
+        fields.put("flag", true);
+        fields.put("none", null);
+        assertThat(JsonLines.toJson(fields)).isEqualTo("{\"text\":\"a\\\"b\\\\c\\nd\\u0001\",\"number\":42,\"flag\":true,\"none\":null}");
+
+        fields.clear();
+        fields.put("list", Arrays.asList(1, "a"));
+        fields.put("map", Collections.singletonMap("k", false));
+        assertThat(JsonLines.toJson(fields)).isEqualTo("{\"list\":[1,\"a\"],\"map\":{\"k\":false}}");
+    }
+
+    private static Path createScript(Path file, int exitValue) throws IOException {
+        Files.write(file, Arrays.asList("#!/bin/sh", "exit " + exitValue), UTF_8);
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return file;
+    }
+
+    private static Result run(String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream outStream = new PrintStream(out, true, "UTF-8"); PrintStream errStream = new PrintStream(err, true, "UTF-8")) {
+            exitCode = HeadlessLauncher.run(args, outStream, errStream);
+        } catch (IOException ex) {
+            throw new AssertionError(ex);
+        }
+        String text = new String(out.toByteArray(), UTF_8).trim();
+        return new Result(exitCode, text.isEmpty() ? Collections.emptyList() : Arrays.asList(text.split("\\R")));
+    }
+
+    @lombok.AllArgsConstructor
+    private static final class Result {
+
+        final int exitCode;
+        final List<String> lines;
+    }
+}
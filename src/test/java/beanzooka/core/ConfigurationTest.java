@@ -0,0 +1,109 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfigurationTest {
+
+    @Test
+    void initWithOverlappingPlugins(@TempDir Path temp) throws IOException {
+        Path firstNbm = Fixtures.createNbm(temp.resolve("first.nbm"), "netbeans/modules/first.jar", "netbeans/modules/shared.jar");
+        Path secondNbm = Fixtures.createNbm(temp.resolve("second.nbm"), "netbeans/modules/second.jar", "netbeans/modules/shared.jar");
+        Plugin first = Plugin.ofNbm(firstNbm.toFile());
+        Plugin second = Plugin.ofNbm(secondNbm.toFile());
+
+        for (long maxSize : new long[]{0, PluginCache.DEFAULT_MAX_SIZE}) {
+            PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(maxSize).build();
+            Path userDir = Files.createDirectory(temp.resolve("userdir" + maxSize));
+
+            File workingDir = configurationOf(userDir, false, first, second).init(LaunchListener.NO_OP, cache);
+
+            Path modules = workingDir.toPath().resolve("modules");
+            assertThat(modules.resolve("first.jar")).hasContent(Fixtures.contentOf(firstNbm, "netbeans/modules/first.jar"));
+            assertThat(modules.resolve("second.jar")).hasContent(Fixtures.contentOf(secondNbm, "netbeans/modules/second.jar"));
+            assertThat(modules.resolve("shared.jar")).hasContent(Fixtures.contentOf(secondNbm, "netbeans/modules/shared.jar"));
+            assertThat(workingDir.toPath().resolve("etc").resolve("nb.conf")).exists();
+        }
+    }
+
+    @Test
+    void initWithSharedPlugins(@TempDir Path temp) throws IOException {
+        Plugin first = Plugin.ofNbm(Fixtures.createNbm(temp.resolve("first.nbm"), "netbeans/modules/first.jar").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(PluginCache.DEFAULT_MAX_SIZE).build();
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+
+        File workingDir = configurationOf(userDir, true, first).init(LaunchListener.NO_OP, cache);
+
+        assertThat(workingDir.toPath().resolve("modules")).doesNotExist();
+        assertThat(workingDir.toPath().resolve("etc").resolve("nb.conf"))
+                .content(UTF_8)
+                .contains("extra_clusters=\"" + cache.getCluster(first, size -> {
+                }).getPath() + "\"");
+    }
+
+    @Test
+    void initReportsExtraction(@TempDir Path temp) throws IOException {
+        Plugin first = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("first.nbm"), "first").toFile());
+        Plugin second = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("second.nbm"), "second").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(PluginCache.DEFAULT_MAX_SIZE).build();
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+
+        AtomicInteger extracted = new AtomicInteger(-1);
+        configurationOf(userDir, false, first, second).init(new LaunchListener() {
+            @Override
+            public void onPluginsExtracted(int plugins, long millis) {
+                assertThat(millis).isNotNegative();
+                extracted.set(plugins);
+            }
+        }, cache);
+
+        assertThat(extracted).hasValue(2);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void startBindsSessionToPluginCache(@TempDir Path temp) throws IOException, InterruptedException {
+        Plugin first = Plugin.ofNbm(Fixtures.createNbm(temp.resolve("first.nbm"), "netbeans/modules/first.jar").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(PluginCache.DEFAULT_MAX_SIZE).build();
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+        Path script = Files.write(temp.resolve("app.sh"), "#!/bin/sh\nexit 0\n".getBytes(UTF_8));
+        assertThat(script.toFile().setExecutable(true)).isTrue();
+        Configuration configuration = Fixtures.configuration()
+                .app(App.builder().label("app").file(script.toFile()).build())
+                .userDir(Optional.of(UserDir.builder().label("dir").folder(userDir.toFile()).build()))
+                .plugins(Arrays.asList(first))
+                .sharedPlugins(true)
+                .build();
+
+        File workingDir = configuration.init(LaunchListener.NO_OP, cache);
+        configuration.start(workingDir, cache).waitFor();
+
+        try (Stream<Path> files = Files.list(temp.resolve("cache"))) {
+            assertThat(files.filter(file -> file.toString().endsWith(".lease")))
+                    .singleElement()
+                    .satisfies(lease -> assertThat(lease).content(UTF_8).contains("session.pid="));
+        }
+    }
+
+    private static Configuration configurationOf(Path userDir, boolean sharedPlugins, Plugin... plugins) {
+        return Fixtures.configuration()
+                .userDir(Optional.of(UserDir.builder().label("dir").folder(userDir.toFile()).build()))
+                .plugins(Arrays.asList(plugins))
+                .sharedPlugins(sharedPlugins)
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileSystemScannerTest {
+
+    @TempDir
+    Path root;
+
+    FileSystemScanner scanner;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        createJdk(root.resolve("jvm").resolve("jdk-21"));
+        createJdk(root.resolve("jvm").resolve("jdk-21").resolve("nested"));
+        Files.createDirectories(root.resolve("jvm").resolve("broken").resolve("bin"));
+        createJdk(root.resolve(".hidden").resolve("jdk-17"));
+        createJdk(root.resolve("a").resolve("b").resolve("c").resolve("jdk-too-deep"));
+
+        Path app = Files.createDirectories(root.resolve("apps").resolve("nb"));
+        touch(app.resolve("etc").resolve("myapp.conf"));
+        touch(app.resolve("bin").resolve("myapp"));
+        touch(app.resolve("platform").resolve("lib").resolve("nbexec"));
+        Path fake = Files.createDirectories(root.resolve("apps").resolve("fake"));
+        touch(fake.resolve("etc").resolve("tool.conf"));
+        touch(fake.resolve("bin").resolve("tool"));
+
+        touch(root.resolve("downloads").resolve("plugin.nbm"));
+        touch(root.resolve("downloads").resolve("readme.txt"));
+        touch(root.resolve("node_modules").resolve("skipped.nbm"));
+
+        scanner = FileSystemScanner
+                .builder()
+                .root(root)
+                .root(root.resolve("missing"))
+                .maxDepth(3)
+                .skip(".*")
+                .skip("node_modules")
+                .parallelism(2)
+                .build();
+    }
+
+    @Test
+    void findJdks() {
+        assertThat(new Jdk.FileSystemSearch(scanner).findResources())
+                .extracting(Jdk::getJavaHome)
+                .containsExactly(root.resolve("jvm").resolve("jdk-21").toFile());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void findApps() {
+        assertThat(new App.FileSystemSearch(scanner).findResources())
+                .hasSize(1)
+                .element(0)
+                .returns("nb", App::getLabel)
+                .returns(root.resolve("apps").resolve("nb").resolve("bin").resolve("myapp").toFile(), App::getFile);
+    }
+
+    @Test
+    void findPlugins() {
+        assertThat(new Plugin.FileSystemSearch(scanner).findResources())
+                .extracting(Plugin::getFile)
+                .containsExactly(root.resolve("downloads").resolve("plugin.nbm").toFile());
+    }
+
+    @Test
+    void skipVanishedFiles() throws IOException {
+        Path dir = Files.createDirectories(root.resolve("volatile"));
+        for (int i = 0; i < 20; i++) {
+            touch(dir.resolve("gone-" + i));
+            touch(dir.resolve("keep-" + i));
+        }
+        AtomicBoolean deleted = new AtomicBoolean();
+        List<Path> result = new ArrayList<>();
+        FileSystemScanner.builder().root(dir).maxDepth(1).parallelism(1).build().scan(new FileSystemScanner.Recognizer<Path>() {
+            @Override
+            public Path recognizeFile(Path file) {
+                if (deleted.compareAndSet(false, true)) {
+                    // deleted while the directory is being listed
+                    for (int i = 0; i < 20; i++) {
+                        try {
+                            Files.deleteIfExists(dir.resolve("gone-" + i));
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                }
+                return file.getFileName().toString().startsWith("keep-") ? file : null;
+            }
+        }, result::add);
+        assertThat(result).hasSize(20);
+    }
+
+    @Test
+    void shareOverlappingWalks() throws Exception {
+        CountDownLatch pluginScanStarted = new CountDownLatch(1);
+        CountDownLatch jdkScanStarted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Plugin>> plugins = executor.submit(() -> {
+                List<Plugin> result = new ArrayList<>();
+                Plugin.FileSystemSearch search = new Plugin.FileSystemSearch(scanner);
+                scanner.scan(new FileSystemScanner.Recognizer<Plugin>() {
+                    @Override
+                    public Plugin recognizeDirectory(Path dir) {
+                        pluginScanStarted.countDown();
+                        try {
+                            // keeps this scan running until the other one has started
+                            jdkScanStarted.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return search.recognizeDirectory(dir);
+                    }
+
+                    @Override
+                    public Plugin recognizeFile(Path file) {
+                        return search.recognizeFile(file);
+                    }
+                }, result::add);
+                return result;
+            });
+            assertThat(pluginScanStarted.await(10, TimeUnit.SECONDS)).isTrue();
+            List<Jdk> jdks = new ArrayList<>();
+            Jdk.FileSystemSearch search = new Jdk.FileSystemSearch(scanner);
+            scanner.scan(new FileSystemScanner.Recognizer<Jdk>() {
+                @Override
+                public Jdk recognizeDirectory(Path dir) {
+                    jdkScanStarted.countDown();
+                    return search.recognizeDirectory(dir);
+                }
+            }, jdks::add);
+
+            assertThat(plugins.get(10, TimeUnit.SECONDS))
+                    .extracting(Plugin::getFile)
+                    .containsExactly(root.resolve("downloads").resolve("plugin.nbm").toFile());
+            assertThat(jdks)
+                    .extracting(Jdk::getJavaHome)
+                    .containsExactly(root.resolve("jvm").resolve("jdk-21").toFile());
+            assertThat(scanner.getWalkCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        new Jdk.FileSystemSearch(scanner).findResources();
+        assertThat(scanner.getWalkCount()).isEqualTo(2);
+    }
+
+    private static void createJdk(Path javaHome) throws IOException {
+        touch(JdkInfo.getJavaFile(javaHome.toFile()));
+        touch(JdkInfo.getReleaseFile(javaHome.toFile()));
+    }
+
+    private static void touch(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.createFile(file);
+    }
+}
@@ -0,0 +1,109 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static beanzooka.core.FileValidity.Status.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileValidityTest {
+
+    @Test
+    void getStatus(@TempDir Path temp) throws IOException {
+        FileValidity x = new FileValidity(Runnable::run, Duration.ofSeconds(1), () -> 0, false);
+
+        assertThat(x.getStatus(temp.toFile())).isEqualTo(DIRECTORY);
+        assertThat(x.getStatus(Files.createFile(temp.resolve("file")).toFile())).isEqualTo(FILE);
+        assertThat(x.getStatus(temp.resolve("missing").toFile())).isEqualTo(MISSING);
+    }
+
+    @Test
+    void expiration(@TempDir Path temp) throws IOException {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger changes = new AtomicInteger();
+        FileValidity x = new FileValidity(Runnable::run, Duration.ofNanos(100), now::get, false);
+        x.addChangeListener(file -> changes.incrementAndGet());
+
+        File file = temp.resolve("file").toFile();
+        assertThat(x.getStatus(file)).isEqualTo(MISSING);
+        assertThat(changes).hasValue(1);
+
+        Files.createFile(file.toPath());
+        assertThat(x.getStatus(file)).isEqualTo(MISSING);
+
+        now.set(100);
+        assertThat(x.getStatus(file)).isEqualTo(FILE);
+        assertThat(changes).hasValue(2);
+
+        now.set(200);
+        assertThat(x.getStatus(file)).isEqualTo(FILE);
+        assertThat(changes).hasValue(2);
+    }
+
+    @Test
+    void pendingCheck(@TempDir Path temp) {
+        AtomicInteger checks = new AtomicInteger();
+        FileValidity x = new FileValidity(task -> checks.incrementAndGet(), Duration.ofSeconds(1), () -> 0, false);
+
+        assertThat(x.getStatus(temp.toFile())).isEqualTo(UNKNOWN);
+        assertThat(x.getStatus(temp.toFile())).isEqualTo(UNKNOWN);
+        assertThat(checks).hasValue(1);
+    }
+
+    @Test
+    void maxEntries(@TempDir Path temp) throws IOException {
+        AtomicLong now = new AtomicLong();
+        FileValidity x = new FileValidity(Runnable::run, Duration.ofNanos(100), now::get, false, 2);
+        File file = Files.createFile(temp.resolve("file")).toFile();
+
+        assertThat(x.getStatus(temp.toFile())).isEqualTo(DIRECTORY);
+        assertThat(x.getStatus(file)).isEqualTo(FILE);
+        assertThat(x.getStatus(temp.resolve("missing").toFile())).isEqualTo(MISSING);
+        assertThat(x.getEntryCount()).isEqualTo(2);
+
+        now.set(100);
+        assertThat(x.getStatus(temp.resolve("other").toFile())).isEqualTo(MISSING);
+        assertThat(x.getEntryCount()).isEqualTo(1);
+        assertThat(x.getStatus(file)).isEqualTo(FILE);
+        assertThat(x.getEntryCount()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationByWatchService(@TempDir Path temp) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            FileValidity x = new FileValidity(executor, Duration.ofHours(1), System::nanoTime, true);
+            File file = temp.resolve("file").toFile();
+
+            CountDownLatch resolved = new CountDownLatch(1);
+            CountDownLatch created = new CountDownLatch(2);
+            x.addChangeListener(changed -> {
+                resolved.countDown();
+                created.countDown();
+            });
+
+            x.getStatus(file);
+            assertThat(resolved.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(x.getStatus(file)).isEqualTo(MISSING);
+
+            Files.createFile(file.toPath());
+            // some platforms poll for changes every few seconds
+            assertThat(created.await(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(x.getStatus(file)).isEqualTo(FILE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
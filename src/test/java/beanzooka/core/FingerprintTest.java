@@ -0,0 +1,60 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintTest {
+
+    @Test
+    void stable(@TempDir Path temp) throws IOException {
+        Path nbm = Files.write(temp.resolve("plugin.nbm"), "nbm".getBytes(UTF_8));
+
+        assertThat(configurationOf(nbm).getFingerprint())
+                .isEqualTo(configurationOf(nbm).getFingerprint())
+                .isNotEqualTo(Fixtures.configuration().build().getFingerprint());
+        assertThat(configurationOf(nbm).getFingerprint().getShortValue()).hasSize(8);
+    }
+
+    @Test
+    void memoized(@TempDir Path temp) throws IOException {
+        Path nbm = Files.write(temp.resolve("plugin.nbm"), "nbm".getBytes(UTF_8));
+        Configuration configuration = configurationOf(nbm);
+        Fingerprint before = configuration.getFingerprint();
+
+        Files.write(nbm, "changed nbm".getBytes(UTF_8));
+
+        assertThat(configuration.getFingerprint()).isSameAs(before);
+        assertThat(configurationOf(nbm).getFingerprint()).isNotEqualTo(before);
+        assertThat(configurationOf(nbm)).isEqualTo(configuration);
+    }
+
+    @Test
+    void contentHash(@TempDir Path temp) throws IOException {
+        Path nbm = Files.write(temp.resolve("plugin.nbm"), "abc".getBytes(UTF_8));
+        FileTime time = Files.getLastModifiedTime(nbm);
+        Fingerprint stampBefore = Fingerprint.of(configurationOf(nbm), false);
+        Fingerprint hashBefore = Fingerprint.of(configurationOf(nbm), true);
+
+        Files.write(nbm, "xyz".getBytes(UTF_8));
+        Files.setLastModifiedTime(nbm, time);
+
+        // same size and same modification time: only the content hash sees the change
+        assertThat(Fingerprint.of(configurationOf(nbm), false)).isEqualTo(stampBefore);
+        assertThat(Fingerprint.of(configurationOf(nbm), true)).isNotEqualTo(hashBefore);
+    }
+
+    private static Configuration configurationOf(Path nbm) {
+        return Fixtures.configuration()
+                .plugins(Collections.singletonList(Plugin.builder().label("plugin").file(nbm.toFile()).build()))
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package beanzooka.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Test data shared by the tests of this package.
+ */
+@lombok.experimental.UtilityClass
+class Fixtures {
+
+    /**
+     * Creates a NBM whose files contain "&lt;nbm file name&gt;:&lt;entry name&gt;".
+     * Entries ending with '/' are directories.
+     */
+    Path createNbm(Path file, String... entries) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(stream)) {
+            for (String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                if (!entry.endsWith("/")) {
+                    zip.write(contentOf(file, entry).getBytes(UTF_8));
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Creates a NBM with an info file, a module jar and a config file named after the module.
+     */
+    Path createModuleNbm(Path file, String module) throws IOException {
+        return createNbm(file, "Info/info.xml", "netbeans/modules/" + module + ".jar", "netbeans/config/" + module + ".xml");
+    }
+
+    String contentOf(Path nbm, String entry) {
+        return nbm.getFileName() + ":" + entry;
+    }
+
+    App app(String label) {
+        return App.builder().label(label).file(Paths.get("/" + label + "/bin/nb64.exe").toFile()).build();
+    }
+
+    Jdk jdk(String label) {
+        return Jdk.builder().label(label).javaHome(Paths.get("/" + label).toFile()).build();
+    }
+
+    /**
+     * Gets a configuration builder without user dir nor plugins.
+     */
+    Configuration.Builder configuration() {
+        return Configuration
+                .builder()
+                .app(app("app"))
+                .jdk(jdk("jdk"))
+                .userDir(Optional.empty())
+                .plugins(Collections.emptyList());
+    }
+}
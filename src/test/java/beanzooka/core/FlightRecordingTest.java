@@ -0,0 +1,88 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FlightRecordingTest {
+
+    @Test
+    void launcherOptions(@TempDir Path temp) throws IOException {
+        Configuration.Builder builder = Configuration
+                .builder()
+                .app(App.builder().label("app").file(temp.resolve("bin").resolve("nbdemo64.exe").toFile()).build())
+                .jdk(Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).options("-J-Xmx1g").build())
+                .userDir(Optional.of(UserDir.builder().label("dir").folder(Files.createDirectory(temp.resolve("userdir")).toFile()).build()))
+                .plugins(Collections.emptyList());
+        Configuration configuration = builder.flightRecording(true).build();
+
+        File workingDir = configuration.init();
+
+        assertThat(UserDir.resolveConfigFile(workingDir, "nbdemo").toPath())
+                .content(UTF_8)
+                .contains("-J-Xmx1g " + FlightRecording.getLauncherOptions(workingDir));
+        assertThat(configuration.getFingerprint())
+                .isNotEqualTo(builder.flightRecording(false).build().getFingerprint());
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void launcherOptionsWithSpaces(@TempDir Path temp) throws IOException, InterruptedException {
+        File workingDir = Files.createDirectories(temp.resolve("First Last").resolve("userdir")).toFile();
+        File configFile = UserDir.resolveConfigFile(workingDir, "app");
+        Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).options("-J-Xmx1g " + FlightRecording.getLauncherOptions(workingDir)).build().writeConfigFile(configFile);
+
+        // the launcher script splits the options as the shell does
+        Path output = temp.resolve("args.txt");
+        Process process = new ProcessBuilder("sh", "-c", ". \"$1\"; eval \"set -- $default_options\"; for arg in \"$@\"; do echo \"$arg\"; done", "sh", configFile.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(Files.readAllLines(output, UTF_8)).containsExactly(
+                "-J-Xmx1g",
+                "-J-XX:StartFlightRecording=dumponexit=true,settings=profile,filename=" + FlightRecording.resolveRecordingFile(workingDir));
+    }
+
+    @Test
+    void summarize(@TempDir Path temp) throws IOException, InterruptedException {
+        assumeTrue(FlightRecording.isSupported());
+
+        Path recording = temp.resolve("recording.jfr");
+        Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-XX:StartFlightRecording=dumponexit=true,settings=profile,filename=" + recording,
+                "-version")
+                .redirectErrorStream(true)
+                .redirectOutput(temp.resolve("output.txt").toFile())
+                .start();
+        assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+        assumeTrue(Files.exists(recording));
+
+        FlightRecording.Summary summary = FlightRecording.summarize(recording);
+
+        assertThat(summary.getDuration().isNegative()).isFalse();
+        assertThat(summary.getHotMethods()).hasSizeLessThanOrEqualTo(FlightRecording.TOP_METHODS);
+        assertThat(summary.getHotMethods().stream().mapToLong(FlightRecording.HotMethod::getSamples).sum())
+                .isLessThanOrEqualTo(summary.getExecutionSamples());
+        assertThat(summary.getGcPauseMax()).isLessThanOrEqualTo(summary.getGcPauseTotal());
+
+        assertThatIOException().isThrownBy(() -> FlightRecording.summarize(temp.resolve("output.txt")));
+    }
+}
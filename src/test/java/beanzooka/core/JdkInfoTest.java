@@ -0,0 +1,121 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdkInfoTest {
+
+    @Test
+    void parseRelease() {
+        assertThat(JdkInfo.parseRelease(Arrays.asList(
+                "IMPLEMENTOR=\"Eclipse Adoptium\"",
+                "JAVA_VERSION=\"21.0.1\"",
+                "OS_ARCH=\"x86_64\"")))
+                .contains(new JdkInfo("21.0.1", "Eclipse Adoptium", "x86_64"));
+
+        assertThat(JdkInfo.parseRelease(Arrays.asList("JAVA_VERSION=\"1.8.0_392\"")))
+                .contains(new JdkInfo("1.8.0_392", null, null));
+
+        assertThat(JdkInfo.parseRelease(Arrays.asList("IMPLEMENTOR=\"Oracle\"", "")))
+                .isEmpty();
+    }
+
+    @Test
+    void parseSettings() {
+        assertThat(JdkInfo.parseSettings(Arrays.asList(
+                "Property settings:",
+                "    java.class.path = ",
+                "    java.vendor = Azul Systems, Inc.",
+                "    java.version = 17.0.9",
+                "    os.arch = aarch64",
+                "openjdk version \"17.0.9\" 2023-10-17 LTS")))
+                .contains(new JdkInfo("17.0.9", "Azul Systems, Inc.", "aarch64"));
+
+        assertThat(JdkInfo.parseSettings(Arrays.asList("Error: could not create the Java Virtual Machine.")))
+                .isEmpty();
+    }
+
+    @Test
+    void readCurrentJdk() {
+        File javaHome = new File(System.getProperty("java.home"));
+        assertThat(JdkInfo.read(javaHome))
+                .hasValueSatisfying(info -> assertThat(info.getVersion()).isEqualTo(System.getProperty("java.version")));
+    }
+
+    @Test
+    void readMissingJdk(@TempDir Path temp) {
+        assertThat(JdkInfo.read(temp.toFile())).isEmpty();
+    }
+
+    @Test
+    void cache(@TempDir Path temp) throws IOException {
+        Path javaHome = Files.createDirectory(temp.resolve("jdk"));
+        Path release = Files.write(javaHome.resolve("release"), "JAVA_VERSION=\"11.0.2\"".getBytes(UTF_8));
+        FileTime time = Files.getLastModifiedTime(release);
+        Path file = temp.resolve("cache").resolve("jdks.properties");
+
+        assertThat(new JdkInfoCache(file).getInfo(javaHome.toFile()))
+                .contains(new JdkInfo("11.0.2", null, null));
+        assertThat(file).exists();
+
+        Files.write(release, "JAVA_VERSION=\"11.0.3\"".getBytes(UTF_8));
+        Files.setLastModifiedTime(release, time);
+        assertThat(new JdkInfoCache(file).getInfo(javaHome.toFile()))
+                .describedAs("unchanged stamp reuses the stored entry")
+                .contains(new JdkInfo("11.0.2", null, null));
+
+        Files.setLastModifiedTime(release, FileTime.fromMillis(time.toMillis() + 2000));
+        assertThat(new JdkInfoCache(file).getInfo(javaHome.toFile()))
+                .contains(new JdkInfo("11.0.3", null, null));
+        assertThat(new JdkInfoCache(file).getInfoAsync(javaHome.toFile()).join())
+                .contains(new JdkInfo("11.0.3", null, null));
+    }
+
+    @Test
+    void cacheRefresh(@TempDir Path temp) throws IOException, InterruptedException {
+        Path javaHome = Files.createDirectory(temp.resolve("jdk"));
+        AtomicLong now = new AtomicLong();
+        JdkInfoCache x = new JdkInfoCache(temp.resolve("jdks.properties"), Duration.ofNanos(100), now::get);
+
+        assertThat(x.getInfoAsync(javaHome.toFile()).join()).isEmpty();
+
+        Path release = Files.write(javaHome.resolve("release"), "JAVA_VERSION=\"11.0.2\"".getBytes(UTF_8));
+        assertThat(x.getInfoAsync(javaHome.toFile()).join())
+                .describedAs("not refreshed yet")
+                .isEmpty();
+
+        now.set(100);
+        assertThat(awaitInfo(x, javaHome.toFile(), new JdkInfo("11.0.2", null, null))).contains(new JdkInfo("11.0.2", null, null));
+
+        Files.write(release, "JAVA_VERSION=\"11.0.3\"".getBytes(UTF_8));
+        Files.setLastModifiedTime(release, FileTime.fromMillis(Files.getLastModifiedTime(release).toMillis() + 2000));
+        now.set(200);
+        assertThat(x.getInfoAsync(javaHome.toFile()).join())
+                .describedAs("previous result while refreshing")
+                .isIn(Optional.of(new JdkInfo("11.0.2", null, null)), Optional.of(new JdkInfo("11.0.3", null, null)));
+        assertThat(awaitInfo(x, javaHome.toFile(), new JdkInfo("11.0.3", null, null))).contains(new JdkInfo("11.0.3", null, null));
+    }
+
+    private static Optional<JdkInfo> awaitInfo(JdkInfoCache cache, File javaHome, JdkInfo expected) throws InterruptedException {
+        CompletableFuture<Optional<JdkInfo>> result = cache.getInfoAsync(javaHome);
+        for (int i = 0; i < 500 && !result.join().equals(Optional.of(expected)); i++) {
+            Thread.sleep(10);
+            result = cache.getInfoAsync(javaHome);
+        }
+        return result.join();
+    }
+}
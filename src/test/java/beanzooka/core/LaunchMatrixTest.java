@@ -0,0 +1,41 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaunchMatrixTest {
+
+    @Test
+    void getConfigurations() {
+        App app1 = App.builder().label("app1").file(Paths.get("/app1/bin/nb64.exe").toFile()).build();
+        App app2 = App.builder().label("app2").file(Paths.get("/app2/bin/nb64.exe").toFile()).build();
+        Jdk jdk1 = Jdk.builder().label("jdk1").javaHome(Paths.get("/jdk1").toFile()).build();
+        Jdk jdk2 = Jdk.builder().label("jdk2").javaHome(Paths.get("/jdk2").toFile()).build();
+        Plugin plugin = Plugin.builder().label("plugin").file(Paths.get("/plugin.nbm").toFile()).build();
+
+        LaunchMatrix matrix = LaunchMatrix
+                .builder()
+                .app(app1).app(app2)
+                .jdk(jdk1).jdk(jdk2)
+                .pluginSet(Collections.emptyList())
+                .pluginSet(Collections.singletonList(plugin))
+                .sharedPlugins(true)
+                .build();
+
+        assertThat(matrix.getConfigurations())
+                .hasSize(8)
+                .allMatch(Configuration::isSharedPlugins)
+                .extracting(o -> o.getApp().getLabel() + "/" + o.getJdk().getLabel() + "/" + o.getPlugins().size())
+                .containsExactly(
+                        "app1/jdk1/0", "app1/jdk1/1", "app1/jdk2/0", "app1/jdk2/1",
+                        "app2/jdk1/0", "app2/jdk1/1", "app2/jdk2/0", "app2/jdk2/1");
+
+        assertThat(LaunchMatrix.builder().app(app1).jdk(jdk1).build().getConfigurations())
+                .singleElement()
+                .satisfies(o -> assertThat(o.getPlugins()).isEmpty());
+    }
+}
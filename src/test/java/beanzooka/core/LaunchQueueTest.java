@@ -0,0 +1,118 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LaunchQueueTest {
+
+    @Test
+    void concurrencyLimit() throws Exception {
+        LaunchQueue queue = new LaunchQueue(2, LaunchQueue.Admission.ALWAYS, Duration.ofMillis(10));
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<Void>> works = new ArrayList<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<Void> work = new CompletableFuture<>();
+            works.add(work);
+            results.add(queue.submit(() -> {
+                started.incrementAndGet();
+                return work;
+            }));
+        }
+
+        awaitRunning(queue, 2);
+        assertThat(started).hasValue(2);
+        assertThat(queue.getPendingCount()).isEqualTo(3);
+
+        works.forEach(work -> work.complete(null));
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertThat(started).hasValue(5);
+        assertThat(queue.getRunningCount()).isZero();
+    }
+
+    @Test
+    void admission() throws Exception {
+        AtomicBoolean admissible = new AtomicBoolean(false);
+        LaunchQueue queue = new LaunchQueue(4, admissible::get, Duration.ofMillis(10));
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+
+        // the first task is always admitted so that the queue cannot starve
+        queue.submit(() -> first);
+        CompletableFuture<Void> result = queue.submit(() -> second);
+        awaitRunning(queue, 1);
+        Thread.sleep(50);
+        assertThat(queue.getRunningCount()).isEqualTo(1);
+        assertThat(queue.getPendingCount()).isEqualTo(1);
+
+        admissible.set(true);
+        awaitRunning(queue, 2);
+        second.complete(null);
+        result.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void startGrace() throws Exception {
+        AtomicLong ticker = new AtomicLong();
+        LaunchQueue queue = new LaunchQueue(4, new LaunchQueue.StartGrace(LaunchQueue.Admission.ALWAYS, 100, ticker::get), Duration.ofMillis(10));
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+
+        queue.submit(() -> first);
+        queue.submit(() -> second);
+        awaitRunning(queue, 1);
+        Thread.sleep(50);
+        assertThat(queue.getRunningCount()).isEqualTo(1);
+
+        ticker.addAndGet(100);
+        awaitRunning(queue, 2);
+        first.complete(null);
+        second.complete(null);
+    }
+
+    @Test
+    void cancelPending() throws Exception {
+        LaunchQueue queue = new LaunchQueue(1, LaunchQueue.Admission.ALWAYS, Duration.ofMillis(10));
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        queue.submit(() -> first);
+        queue.submit(() -> {
+            secondStarted.set(true);
+            return CompletableFuture.completedFuture(null);
+        }).cancel(true);
+        first.complete(null);
+
+        CompletableFuture<Void> third = queue.submit(() -> CompletableFuture.completedFuture(null));
+        third.get(5, TimeUnit.SECONDS);
+        assertThat(secondStarted).isFalse();
+    }
+
+    @Test
+    void parseSystemLoad() {
+        List<String> meminfo = new ArrayList<>();
+        meminfo.add("MemTotal:       16305412 kB");
+        meminfo.add("MemAvailable:    8152706 kB");
+        assertThat(SystemLoad.parseAvailableMemory(meminfo)).hasValue(8152706L * 1024);
+        assertThat(SystemLoad.parseLoadAverage("0.52 0.58 0.59 1/467 12345")).hasValue(0.52);
+        assertThat(SystemLoad.parseLoadAverage("")).isEmpty();
+    }
+
+    private static void awaitRunning(LaunchQueue queue, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queue.getRunningCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(queue.getRunningCount()).isEqualTo(expected);
+    }
+}
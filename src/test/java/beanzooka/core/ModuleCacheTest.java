@@ -0,0 +1,65 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModuleCacheTest {
+
+    @Test
+    void captureAndSeed(@TempDir Path temp) throws IOException {
+        ModuleCache cache = ModuleCache.builder().root(temp.resolve("cache")).maxEntries(ModuleCache.DEFAULT_MAX_ENTRIES).build();
+        Configuration configuration = Fixtures.configuration().app(Fixtures.app("app")).build();
+
+        File golden = createWorkingDir(temp.resolve("golden"), "all-modules");
+        assertThat(cache.capture(configuration, golden)).isTrue();
+        assertThat(cache.contains(configuration)).isTrue();
+        assertThat(cache.contains(Fixtures.configuration().app(Fixtures.app("other")).build())).isFalse();
+
+        File fresh = Files.createDirectory(temp.resolve("fresh")).toFile();
+        assertThat(cache.seed(configuration, fresh, size -> {
+        })).isTrue();
+        assertThat(ModuleCache.resolveCacheDir(fresh).resolve("all-modules.dat")).hasContent("all-modules");
+
+        File other = Files.createDirectory(temp.resolve("other")).toFile();
+        assertThat(cache.seed(Fixtures.configuration().app(Fixtures.app("other")).build(), other, size -> {
+        })).isFalse();
+        assertThat(ModuleCache.resolveCacheDir(other)).doesNotExist();
+    }
+
+    @Test
+    void seedKeepsExistingCaches(@TempDir Path temp) throws IOException {
+        ModuleCache cache = ModuleCache.builder().root(temp.resolve("cache")).maxEntries(ModuleCache.DEFAULT_MAX_ENTRIES).build();
+        Configuration configuration = Fixtures.configuration().app(Fixtures.app("app")).build();
+        cache.capture(configuration, createWorkingDir(temp.resolve("golden"), "golden"));
+
+        File existing = createWorkingDir(temp.resolve("existing"), "existing");
+        assertThat(cache.seed(configuration, existing, size -> {
+        })).isFalse();
+        assertThat(ModuleCache.resolveCacheDir(existing).resolve("all-modules.dat")).hasContent("existing");
+    }
+
+    @Test
+    void evict(@TempDir Path temp) throws IOException {
+        ModuleCache cache = ModuleCache.builder().root(temp.resolve("cache")).maxEntries(1).build();
+
+        cache.capture(Fixtures.configuration().app(Fixtures.app("first")).build(), createWorkingDir(temp.resolve("first"), "first"));
+        cache.capture(Fixtures.configuration().app(Fixtures.app("second")).build(), createWorkingDir(temp.resolve("second"), "second"));
+
+        assertThat(cache.contains(Fixtures.configuration().app(Fixtures.app("first")).build())).isFalse();
+        assertThat(cache.contains(Fixtures.configuration().app(Fixtures.app("second")).build())).isTrue();
+    }
+
+    private static File createWorkingDir(Path dir, String content) throws IOException {
+        Path cacheDir = Files.createDirectories(ModuleCache.resolveCacheDir(dir.toFile()));
+        Files.write(cacheDir.resolve("all-modules.dat"), content.getBytes(UTF_8));
+        return dir.toFile();
+    }
+}
@@ -0,0 +1,142 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelResourceFinderTest {
+
+    @Test
+    void deduplication() {
+        ParallelResourceFinder<String> x = ParallelResourceFinder
+                .<String>builder()
+                .finder(of("a", "B", "c"))
+                .finder(of("b", "C", "d"))
+                .key(String::toLowerCase)
+                .build();
+
+        assertThat(x.findResources())
+                .hasSize(4)
+                .extracting(String::toLowerCase)
+                .containsExactlyInAnyOrder("a", "b", "c", "d");
+    }
+
+    @Test
+    void finderOrder() {
+        CountDownLatch second = new CountDownLatch(1);
+        ResourceFinder<String> slow = consumer -> {
+            try {
+                second.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            consumer.accept("a");
+            consumer.accept("b");
+        };
+        ResourceFinder<String> fast = consumer -> {
+            consumer.accept("c");
+            consumer.accept("A");
+            second.countDown();
+        };
+
+        assertThat(ParallelResourceFinder
+                .<String>builder()
+                .finder(slow)
+                .finder(fast)
+                .key(String::toLowerCase)
+                .build()
+                .findResources())
+                .containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void parallelism() {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ResourceFinder<String> waiting = consumer -> {
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            consumer.accept(Thread.currentThread().getName());
+        };
+        List<ParallelResourceFinder.Timing> timings = new ArrayList<>();
+
+        List<String> result = ParallelResourceFinder
+                .<String>builder()
+                .finder(waiting)
+                .finder(waiting)
+                .onTiming(timings::add)
+                .build()
+                .findResources();
+
+        assertThat(result).hasSize(2).doesNotHaveDuplicates();
+        assertThat(timings)
+                .hasSize(2)
+                .allSatisfy(timing -> assertThat(timing).returns(1, ParallelResourceFinder.Timing::getCount).returns(false, ParallelResourceFinder.Timing::isTimedOut));
+    }
+
+    @Test
+    void timeout() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ResourceFinder<String> stuck = consumer -> {
+            consumer.accept("early");
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                consumer.accept("late");
+            } catch (InterruptedException ex) {
+                cancelled.countDown();
+            }
+        };
+        List<ParallelResourceFinder.Timing> timings = new ArrayList<>();
+
+        List<String> result = ParallelResourceFinder
+                .<String>builder()
+                .finder(stuck)
+                .finder(of("fast"))
+                .timeout(Duration.ofMillis(200))
+                .onTiming(timings::add)
+                .build()
+                .findResources();
+
+        assertThat(result).containsExactlyInAnyOrder("early", "fast");
+        assertThat(timings)
+                .filteredOn(ParallelResourceFinder.Timing::isTimedOut)
+                .hasSize(1)
+                .element(0)
+                .returns(-1, ParallelResourceFinder.Timing::getCount);
+        assertThat(cancelled.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void failure() {
+        List<ParallelResourceFinder.Timing> timings = new ArrayList<>();
+
+        List<String> result = ParallelResourceFinder
+                .<String>builder()
+                .finder(consumer -> {
+                    throw new IllegalStateException("boom");
+                })
+                .finder(of("ok"))
+                .onTiming(timings::add)
+                .build()
+                .findResources();
+
+        assertThat(result).containsExactly("ok");
+        assertThat(timings)
+                .filteredOn(timing -> timing.getError() != null)
+                .hasSize(1);
+    }
+
+    private static ResourceFinder<String> of(String... values) {
+        return consumer -> Arrays.asList(values).forEach(consumer);
+    }
+}
@@ -0,0 +1,182 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PluginCacheTest {
+
+    @Test
+    void extract(@TempDir Path temp) throws IOException {
+        Plugin plugin = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(PluginCache.DEFAULT_MAX_SIZE).build();
+
+        for (int i = 0; i < 2; i++) {
+            Path userDir = Files.createDirectory(temp.resolve("userdir" + i));
+            AtomicInteger entries = new AtomicInteger();
+            cache.extract(plugin, userDir.toFile(), size -> entries.incrementAndGet());
+
+            assertThat(entries).hasValue(2);
+            assertThat(userDir.resolve("modules").resolve("p1.jar")).hasContent(Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/modules/p1.jar"));
+            assertThat(userDir.resolve("config").resolve("p1.xml")).hasContent(Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/config/p1.xml"));
+        }
+        assertThat(countEntries(cache)).isEqualTo(1);
+    }
+
+    @Test
+    void extractWithoutCache(@TempDir Path temp) throws IOException {
+        Plugin plugin = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(0).build();
+
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+        cache.extract(plugin, userDir.toFile(), size -> {
+        });
+
+        assertThat(userDir.resolve("modules").resolve("p1.jar")).hasContent(Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/modules/p1.jar"));
+        assertThat(temp.resolve("cache")).doesNotExist();
+    }
+
+    @Test
+    void keyIsContentHash(@TempDir Path temp) throws IOException {
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(PluginCache.DEFAULT_MAX_SIZE).build();
+        Path first = Fixtures.createModuleNbm(temp.resolve("a.nbm"), "same");
+        Path second = Files.copy(first, temp.resolve("b.nbm"));
+        Path other = Fixtures.createModuleNbm(temp.resolve("c.nbm"), "other");
+
+        assertThat(cache.getKey(first))
+                .isEqualTo(cache.getKey(second))
+                .isNotEqualTo(cache.getKey(other));
+    }
+
+    @Test
+    void evictLeastRecentlyUsed(@TempDir Path temp) throws IOException {
+        Plugin p1 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        Plugin p2 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p2.nbm"), "p2").toFile());
+        Plugin p3 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p3.nbm"), "p3").toFile());
+        long entrySize = Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/modules/p1.jar").length() + Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/config/p1.xml").length();
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(2 * entrySize).build();
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+
+        cache.extract(p1, userDir.toFile(), size -> {
+        });
+        Files.setLastModifiedTime(cache.getRoot().resolve(cache.getKey(p1.getFile().toPath())), FileTime.fromMillis(1000));
+        cache.extract(p2, userDir.toFile(), size -> {
+        });
+        cache.extract(p3, userDir.toFile(), size -> {
+        });
+
+        assertThat(cache.getRoot().resolve(cache.getKey(p1.getFile().toPath()))).doesNotExist();
+        assertThat(cache.getRoot().resolve(cache.getKey(p2.getFile().toPath()))).isDirectory();
+        assertThat(cache.getRoot().resolve(cache.getKey(p3.getFile().toPath()))).isDirectory();
+    }
+
+    @Test
+    void extractIsNotEvictedWhileLinking(@TempDir Path temp) throws IOException {
+        Plugin p1 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        Plugin p2 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p2.nbm"), "p2").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(1).build();
+        Path userDir1 = Files.createDirectory(temp.resolve("userdir1"));
+        Path userDir2 = Files.createDirectory(temp.resolve("userdir2"));
+
+        AtomicBoolean concurrent = new AtomicBoolean();
+        cache.extract(p1, userDir1.toFile(), name -> {
+            // another preparer evicts everything it can while this one is linking
+            if (concurrent.compareAndSet(false, true)) {
+                try {
+                    cache.extract(p2, userDir2.toFile(), size -> {
+                    });
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            return true;
+        }, size -> {
+        });
+
+        assertThat(userDir1.resolve("modules").resolve("p1.jar")).hasContent(Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/modules/p1.jar"));
+        assertThat(userDir1.resolve("config").resolve("p1.xml")).hasContent(Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/config/p1.xml"));
+        assertThat(userDir2.resolve("modules").resolve("p2.jar")).hasContent(Fixtures.contentOf(temp.resolve("p2.nbm"), "netbeans/modules/p2.jar"));
+    }
+
+    @Test
+    void extractedJarsAreReadOnly(@TempDir Path temp) throws IOException {
+        Plugin plugin = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(PluginCache.DEFAULT_MAX_SIZE).build();
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+
+        cache.extract(plugin, userDir.toFile(), size -> {
+        });
+
+        if (temp.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(Files.getPosixFilePermissions(userDir.resolve("modules").resolve("p1.jar")))
+                    .doesNotContain(PosixFilePermission.OWNER_WRITE);
+            assertThat(Files.getPosixFilePermissions(userDir.resolve("config").resolve("p1.xml")))
+                    .contains(PosixFilePermission.OWNER_WRITE);
+        }
+        cache.clear();
+        assertThat(countEntries(cache)).isZero();
+    }
+
+    @Test
+    void getCluster(@TempDir Path temp) throws IOException {
+        Plugin p1 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        Plugin p2 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p2.nbm"), "p2").toFile());
+        PluginCache cache = PluginCache.builder().root(temp.resolve("cache")).maxSize(1).build();
+
+        File cluster = cache.getCluster(p1, size -> {
+        });
+        assertThat(cache.getCluster(p1, size -> {
+        })).isEqualTo(cluster);
+        assertThat(cluster.toPath().resolve("modules").resolve("p1.jar")).hasContent(Fixtures.contentOf(temp.resolve("p1.nbm"), "netbeans/modules/p1.jar"));
+
+        Path userDir = Files.createDirectory(temp.resolve("userdir"));
+        cache.extract(p2, userDir.toFile(), size -> {
+        });
+        cache.clear();
+        assertThat(cluster).isDirectory();
+    }
+
+    @Test
+    void getClusterIsLeasedAcrossInstances(@TempDir Path temp) throws IOException {
+        Plugin p1 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p1.nbm"), "p1").toFile());
+        Plugin p2 = Plugin.ofNbm(Fixtures.createModuleNbm(temp.resolve("p2.nbm"), "p2").toFile());
+        Path workingDir = Files.createDirectory(temp.resolve("userdir"));
+
+        File cluster = PluginCache.builder().root(temp.resolve("cache")).maxSize(1).build().getCluster(p1, workingDir.toFile(), size -> {
+        });
+
+        // another process or a restart of this one
+        PluginCache other = PluginCache.builder().root(temp.resolve("cache")).maxSize(1).build();
+        other.extract(p2, Files.createDirectory(temp.resolve("other")).toFile(), size -> {
+        });
+        other.clear();
+        assertThat(cluster).isDirectory();
+
+        try (Stream<Path> leases = Files.list(other.getRoot()).filter(file -> file.toString().endsWith(".lease"))) {
+            for (Path lease : (Iterable<Path>) leases::iterator) {
+                ProcessLease.write(lease, Long.MAX_VALUE, null, "dead owner");
+            }
+        }
+        other.clear();
+        assertThat(cluster).doesNotExist();
+        assertThat(countEntries(other)).isZero();
+    }
+
+    private static long countEntries(PluginCache cache) throws IOException {
+        try (Stream<Path> dirs = Files.list(cache.getRoot())) {
+            return dirs.count();
+        }
+    }
+}
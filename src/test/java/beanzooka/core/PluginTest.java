@@ -1,11 +1,21 @@
 package beanzooka.core;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
 
 class PluginTest {
 
@@ -30,6 +40,59 @@ class PluginTest {
                 .isEmpty();
     }
 
+    @Test
+    void extract(@TempDir Path temp) throws IOException {
+        Path nbm = temp.resolve("p.nbm");
+        Plugin plugin = Plugin.ofNbm(Fixtures.createNbm(nbm,
+                "Info/info.xml", "netbeans/", "netbeans/modules/", "netbeans/modules/p.jar", "netbeans/config/Modules/p.xml", "netbeans/update_tracking/p.xml").toFile());
+        Path streamed = Files.createDirectory(temp.resolve("streamed"));
+        Path walked = Files.createDirectory(temp.resolve("walked"));
+
+        AtomicLong bytes = new AtomicLong();
+        plugin.extract(streamed.toFile(), name -> !name.startsWith("update_tracking/"), bytes::addAndGet);
+        plugin.extractWithFileSystem(walked.toFile(), name -> !name.startsWith("update_tracking/"), size -> {
+        });
+
+        assertThat(listFiles(streamed))
+                .containsExactlyElementsOf(listFiles(walked))
+                .containsExactly("config/Modules/p.xml", "modules/p.jar");
+        assertThat(streamed.resolve("modules").resolve("p.jar")).hasContent(Fixtures.contentOf(nbm, "netbeans/modules/p.jar"));
+        assertThat(bytes.get()).isEqualTo(Fixtures.contentOf(nbm, "netbeans/modules/p.jar").length() + Fixtures.contentOf(nbm, "netbeans/config/Modules/p.xml").length());
+    }
+
+    @Test
+    void extractOverHardLink(@TempDir Path temp) throws IOException {
+        Path nbm = temp.resolve("p.nbm");
+        Plugin plugin = Plugin.ofNbm(Fixtures.createNbm(nbm, "netbeans/modules/p.jar").toFile());
+        Path source = Files.write(temp.resolve("golden.jar"), "golden".getBytes(UTF_8));
+        Path folder = Files.createDirectories(temp.resolve("folder").resolve("modules")).getParent();
+        Files.createLink(folder.resolve("modules").resolve("p.jar"), source);
+        assertThat(source.toFile().setReadOnly()).isTrue();
+
+        plugin.extract(folder.toFile());
+
+        assertThat(folder.resolve("modules").resolve("p.jar")).hasContent(Fixtures.contentOf(nbm, "netbeans/modules/p.jar"));
+        assertThat(source).hasContent("golden");
+    }
+
+    @Test
+    void extractRejectsEntriesOutsideFolder(@TempDir Path temp) throws IOException {
+        Plugin plugin = Plugin.ofNbm(Fixtures.createNbm(temp.resolve("p.nbm"), "netbeans/../../evil.txt").toFile());
+        Path folder = Files.createDirectory(temp.resolve("folder"));
+
+        assertThatIOException().isThrownBy(() -> plugin.extract(folder.toFile()));
+        assertThat(temp.getParent().resolve("evil.txt")).doesNotExist();
+    }
+
+    private static List<String> listFiles(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> Util.toRelativeName(root, file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
     private static File[] fakeSearch(String ignore) {
         return new File[]{Paths.get("/plugins/my-plugin.nbm").toFile()};
     }
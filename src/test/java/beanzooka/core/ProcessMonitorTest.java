@@ -0,0 +1,58 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessMonitorTest {
+
+    @Test
+    void parseProcfs() {
+        String stat = "1234 (my (weird) app) S 1 1234 1234 0 -1 4194560 100 0 0 0 250 50 0 0 20 0 42 0 12345 1000000 2500 18446744073709551615";
+        assertThat(ProcessMonitor.parseStat(stat))
+                .isEqualTo(new ProcessMonitor.Usage(3_000_000_000L, 0, 42));
+        assertThat(ProcessMonitor.parseStat("garbage")).isNull();
+
+        assertThat(ProcessMonitor.parseResidentBytes(Arrays.asList("Name:\tjava", "VmRSS:\t  2048 kB", "Threads:\t42")))
+                .isEqualTo(2048 * 1024);
+        assertThat(ProcessMonitor.parseResidentBytes(Arrays.asList("Name:\tkthreadd", "Threads:\t1")))
+                .isZero();
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void sample() {
+        ProcessMonitor monitor = new ProcessMonitor(Duration.ofHours(1));
+        List<ProcessMonitor.Sample> samples = new ArrayList<>();
+        ProcessMonitor.Watch watch = monitor.watchPid(getCurrentPid(), samples::add).orElseThrow(AssertionError::new);
+
+        watch.sample();
+        watch.sample();
+
+        assertThat(samples).hasSize(2);
+        assertThat(watch.getHistory()).isEqualTo(samples);
+        assertThat(watch.getLatest()).isSameAs(samples.get(1));
+        assertThat(watch.getLatest().getResidentBytes()).isPositive();
+        assertThat(watch.getLatest().getThreadCount()).isPositive();
+        assertThat(watch.getLatest().getCpuPercent()).isNotNegative();
+
+        for (int i = 0; i < ProcessMonitor.HISTORY_SIZE; i++) {
+            watch.sample();
+        }
+        assertThat(watch.getHistory()).hasSize(ProcessMonitor.HISTORY_SIZE);
+    }
+
+    private static long getCurrentPid() {
+        // pid@hostname
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        return Long.parseLong(name.substring(0, name.indexOf('@')));
+    }
+}
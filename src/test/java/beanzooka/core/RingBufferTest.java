@@ -0,0 +1,58 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RingBufferTest {
+
+    @Test
+    void keepsEverythingBelowCapacity() {
+        RingBuffer x = new RingBuffer(8);
+        write(x, "abc");
+        write(x, "de");
+        assertThat(x.toString(US_ASCII)).isEqualTo("abcde");
+        assertThat(x.getSize()).isEqualTo(5);
+    }
+
+    @Test
+    void keepsTailWhenWrapping() {
+        RingBuffer x = new RingBuffer(4);
+        write(x, "abc");
+        write(x, "def");
+        assertThat(x.toString(US_ASCII)).isEqualTo("cdef");
+        write(x, "g");
+        assertThat(x.toString(US_ASCII)).isEqualTo("defg");
+        assertThat(x.getSize()).isEqualTo(4);
+    }
+
+    @Test
+    void keepsTailOfLargeWrite() {
+        RingBuffer x = new RingBuffer(4);
+        write(x, "a");
+        write(x, "0123456789");
+        assertThat(x.toString(US_ASCII)).isEqualTo("6789");
+    }
+
+    @Test
+    void clear() {
+        RingBuffer x = new RingBuffer(4);
+        write(x, "abcdef");
+        x.clear();
+        assertThat(x.toByteArray()).isEmpty();
+        write(x, "xy");
+        assertThat(x.toString(US_ASCII)).isEqualTo("xy");
+    }
+
+    @Test
+    void invalidCapacity() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new RingBuffer(0));
+    }
+
+    private static void write(RingBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(US_ASCII);
+        buffer.write(bytes, 0, bytes.length);
+    }
+}
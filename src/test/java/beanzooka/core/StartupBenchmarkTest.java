@@ -0,0 +1,126 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupBenchmarkTest {
+
+    @Test
+    void stats() {
+        assertThat(StartupBenchmark.Stats.of(new long[0]))
+                .isEqualTo(new StartupBenchmark.Stats(0, 0, 0, 0));
+
+        assertThat(StartupBenchmark.Stats.of(new long[]{7}))
+                .isEqualTo(new StartupBenchmark.Stats(1, 7, 7, 7));
+
+        long[] values = new long[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (values.length - i) * 10L;
+        }
+        assertThat(StartupBenchmark.Stats.of(values))
+                .isEqualTo(new StartupBenchmark.Stats(20, 10, 100, 190));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void run(@TempDir Path temp) throws IOException, InterruptedException {
+        Configuration ok = newConfiguration(temp, createScript(temp.resolve("ok"), "echo 'INFO: Warmup finished, took 1 ms' >> \"$2/var/log/messages.log\"", "sleep 60"));
+
+        List<StartupBenchmark.Run> reported = new ArrayList<>();
+        StartupBenchmark.Result result = StartupBenchmark
+                .builder()
+                .configuration(ok)
+                .runs(3)
+                .warmups(1)
+                .build()
+                .run(reported::add);
+
+        assertThat(result.getRuns()).isEqualTo(reported).hasSize(4);
+        assertThat(result.getRuns()).extracting(StartupBenchmark.Run::isWarmup).containsExactly(true, false, false, false);
+        assertThat(result.getRuns()).allMatch(StartupBenchmark.Run::isSuccess);
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getStartupStats().getCount()).isEqualTo(3);
+        assertThat(result.getInitStats().getCount()).isEqualTo(3);
+        // working dirs are deleted after each run
+        try (Stream<Path> files = Files.list(temp.resolve("base"))) {
+            assertThat(files).isEmpty();
+        }
+
+        Configuration ko = newConfiguration(temp, createScript(temp.resolve("ko"), "exit 1"));
+
+        StartupBenchmark.Result failure = StartupBenchmark
+                .builder()
+                .configuration(ko)
+                .runs(1)
+                .timeout(Duration.ofSeconds(30))
+                .build()
+                .run(run -> {
+                });
+
+        assertThat(failure.getFailedCount()).isEqualTo(1);
+        assertThat(failure.getStartupStats().getCount()).isZero();
+        assertThat(failure.getRuns().get(0).getError()).contains("exited with value 1");
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void runIgnoresPreviousLog(@TempDir Path temp) throws IOException, InterruptedException {
+        Path userDir = Files.createDirectories(temp.resolve("userdir"));
+        Path log = Files.createDirectories(userDir.resolve("var").resolve("log")).resolve("messages.log");
+        Files.write(log, Arrays.asList("INFO: Warmup finished, took 1 ms"), UTF_8);
+        Path script = createScript(temp.resolve("slow"), "sleep 1", "echo 'INFO: Warmup finished, took 1 ms' >> \"$2/var/log/messages.log\"", "sleep 60");
+        Configuration configuration = Configuration
+                .builder()
+                .app(App.builder().label("app").file(script.toFile()).build())
+                .jdk(Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).build())
+                .userDir(Optional.of(UserDir.builder().label("userdir").folder(userDir.toFile()).build()))
+                .plugins(Collections.emptyList())
+                .build();
+
+        StartupBenchmark.Result result = StartupBenchmark
+                .builder()
+                .configuration(configuration)
+                .runs(1)
+                .build()
+                .run(run -> {
+                });
+
+        assertThat(result.getFailedCount()).isZero();
+        assertThat(result.getRuns().get(0).getStartupMillis()).isGreaterThanOrEqualTo(900);
+    }
+
+    private static Configuration newConfiguration(Path temp, Path script) throws IOException {
+        return Configuration
+                .builder()
+                .app(App.builder().label("app").file(script.toFile()).build())
+                .jdk(Jdk.builder().label("jdk").javaHome(temp.resolve("jdk").toFile()).build())
+                .userDir(Optional.of(UserDir.TEMP.withBaseDir(Files.createDirectories(temp.resolve("base")).toFile())))
+                .plugins(Collections.emptyList())
+                .build();
+    }
+
+    private static Path createScript(Path file, String... commands) throws IOException {
+        List<String> lines = new ArrayList<>(Arrays.asList("#!/bin/sh", "mkdir -p \"$2/var/log\""));
+        lines.addAll(Arrays.asList(commands));
+        Files.write(file, lines, UTF_8);
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rwxr-xr-x"));
+        return file;
+    }
+}
@@ -0,0 +1,133 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TempDirsTest {
+
+    @Test
+    void createAndDelete(@TempDir Path root) throws IOException {
+        File dir = TempDirs.DEFAULT.create(root, "userdir");
+        Files.createDirectories(dir.toPath().resolve("var").resolve("cache"));
+        Files.write(dir.toPath().resolve("var").resolve("cache").resolve("file.txt"), "content".getBytes(UTF_8));
+
+        assertThat(dir.toPath().resolve(TempDirs.MARKER_FILE)).isRegularFile();
+        assertThat(TempDirs.DEFAULT.isTemporary(dir)).isTrue();
+
+        TempDirs.DEFAULT.delete(dir).join();
+        assertThat(dir).doesNotExist();
+        assertThat(TempDirs.DEFAULT.isTemporary(dir)).isFalse();
+    }
+
+    @Test
+    void reap(@TempDir Path root) throws IOException {
+        // dirs are marked by hand since create() would also start a background reaper on the same root
+        File owned = createMarked(root.resolve("owned"), TempDirs.DEFAULT);
+        File orphan = createMarked(root.resolve("orphan"), new TempDirs(Long.MAX_VALUE, null));
+        File foreign = Files.createDirectory(root.resolve("foreign")).toFile();
+
+        assertThat(TempDirs.DEFAULT.reap(root)).isEqualTo(1);
+        assertThat(orphan).doesNotExist();
+        assertThat(owned).isDirectory();
+        assertThat(foreign).isDirectory();
+    }
+
+    @Test
+    void reapReusedPid(@TempDir Path root) throws IOException {
+        String pid = readMarker(createMarked(root.resolve("owned"), TempDirs.DEFAULT));
+        File reused = createMarked(root.resolve("reused"), new TempDirs(Long.parseLong(pid), Instant.EPOCH));
+
+        assertThat(TempDirs.DEFAULT.reap(root)).isEqualTo(1);
+        assertThat(reused).doesNotExist();
+    }
+
+    @Test
+    void reapKeepsRunningSession(@TempDir Path root) throws IOException {
+        // the current process stands for a session still running after the crash of its owner
+        long sessionPid = Long.parseLong(readMarker(createMarked(root.resolve("owned"), TempDirs.DEFAULT)));
+        File orphan = createMarked(root.resolve("orphan"), new TempDirs(Long.MAX_VALUE, null));
+        File running = createMarked(root.resolve("running"), new TempDirs(Long.MAX_VALUE, null));
+        TempDirs.DEFAULT.bindSession(running, sessionPid, null);
+
+        assertThat(TempDirs.DEFAULT.reap(root)).isEqualTo(1);
+        assertThat(orphan).doesNotExist();
+        assertThat(running).isDirectory();
+    }
+
+    @Test
+    void hasRoom(@TempDir Path root) {
+        assertThat(TempDirs.hasRoom(root, 0)).isTrue();
+        assertThat(TempDirs.hasRoom(root, Long.MAX_VALUE / 2)).isFalse();
+        assertThat(TempDirs.hasRoom(root.resolve("missing"), 0)).isFalse();
+    }
+
+    @Test
+    void reserve(@TempDir Path root) throws IOException {
+        long free = Files.getFileStore(root).getUsableSpace() - TempDirs.DEFAULT_RESERVE;
+        assumeTrue(free > 0);
+        TempDirs tempDirs = new TempDirs(Long.MAX_VALUE, null);
+        long required = free / 10 * 6;
+
+        TempDirs.Reservation first = tempDirs.reserve(root, required);
+        assertThat(first).isNotNull();
+        assertThat(tempDirs.reserve(root, required)).isNull();
+
+        first.close();
+        TempDirs.Reservation second = tempDirs.reserve(root, required);
+        assertThat(second).isNotNull();
+        second.close();
+
+        assertThat(tempDirs.reserve(root.resolve("missing"), 0)).isNull();
+    }
+
+    @Test
+    void userDirBaseDir(@TempDir Path root) throws IOException {
+        File dir = UserDir.TEMP.withBaseDir(root.toFile()).createWorkingDir();
+        assertThat(dir.toPath().getParent()).isEqualTo(root);
+        TempDirs.DEFAULT.delete(dir).join();
+
+        File fallback = UserDir.TEMP.withBaseDir(root.resolve("missing").toFile()).createWorkingDir();
+        assertThat(fallback.toPath().getParent()).isEqualTo(TempDirs.getDefaultRoot());
+        TempDirs.DEFAULT.delete(fallback).join();
+    }
+
+    @Test
+    void userDirCloneInBaseDir(@TempDir Path root) throws IOException {
+        Path source = Files.createDirectory(root.resolve("source"));
+        Files.write(source.resolve("file.txt"), "content".getBytes(UTF_8));
+        Path baseDir = Files.createDirectory(root.resolve("base"));
+        UserDir userDir = UserDir.builder().label("dir").folder(source.toFile()).clone(true).baseDir(baseDir.toFile()).build();
+
+        for (int i = 0; i < 2; i++) {
+            File clone = userDir.createWorkingDir();
+            assertThat(clone.toPath().getParent()).isEqualTo(baseDir);
+            assertThat(clone.toPath().resolve("file.txt")).hasContent("content");
+            TempDirs.DEFAULT.delete(clone).join();
+        }
+    }
+
+    private static File createMarked(Path dir, TempDirs owner) throws IOException {
+        File result = Files.createDirectory(dir).toFile();
+        owner.mark(result);
+        return result;
+    }
+
+    private static String readMarker(File dir) throws IOException {
+        return Files.readAllLines(dir.toPath().resolve(TempDirs.MARKER_FILE), UTF_8)
+                .stream()
+                .filter(line -> line.startsWith("pid="))
+                .map(line -> line.substring(4))
+                .findFirst()
+                .orElseThrow(IOException::new);
+    }
+}
@@ -0,0 +1,191 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class UtilTest {
+
+    @Test
+    void copyAllInParallel(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 3, 100);
+        Path destination = Files.createDirectory(temp.resolve("destination"));
+
+        AtomicLong bytes = new AtomicLong();
+        Util.copyAllInParallel(source, destination, 4, bytes::addAndGet);
+
+        assertThat(destination.resolve("dir2").resolve("file99.txt")).hasContent("dir2/file99");
+        assertThat(countFiles(destination)).isEqualTo(countFiles(source)).isEqualTo(301);
+        assertThat(bytes.get()).isEqualTo(sizeOf(source));
+    }
+
+    @Test
+    void copyAllInParallelWithSequentialResult(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 2, 10);
+        Path sequential = Files.createDirectory(temp.resolve("sequential"));
+        Path parallel = Files.createDirectory(temp.resolve("parallel"));
+
+        Util.copyAll(source, sequential);
+        Util.copyAllInParallel(source, parallel, 2, size -> {
+        });
+
+        assertThat(countFiles(parallel)).isEqualTo(countFiles(sequential));
+        assertThat(sizeOf(parallel)).isEqualTo(sizeOf(sequential));
+    }
+
+    @Test
+    void copyAllInCallerThread(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 3, 100);
+        Path destination = Files.createDirectory(temp.resolve("destination"));
+
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Util.copyAllInParallel(source, destination, 1, size -> threads.add(Thread.currentThread()));
+
+        assertThat(countFiles(destination)).isEqualTo(countFiles(source)).isEqualTo(301);
+        assertThat(threads).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void linkAllInParallel(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 2, 10);
+        Files.write(source.resolve("dir1").resolve("module.jar"), "jar".getBytes(UTF_8));
+        Path destination = Files.createDirectory(temp.resolve("destination"));
+
+        PathMatcher jars = source.getFileSystem().getPathMatcher("glob:**.jar");
+        AtomicLong bytes = new AtomicLong();
+        Util.linkAllInParallel(source, destination, jars, 2, bytes::addAndGet);
+
+        assertThat(countFiles(destination)).isEqualTo(countFiles(source));
+        assertThat(bytes.get()).isEqualTo(sizeOf(source));
+        assertThat(Files.isSameFile(source.resolve("dir1").resolve("module.jar"), destination.resolve("dir1").resolve("module.jar"))).isTrue();
+        assertThat(Files.isSameFile(source.resolve("root.txt"), destination.resolve("root.txt"))).isFalse();
+        assertThat(destination.resolve("root.txt")).hasContent("root");
+        if (source.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertThat(Files.getPosixFilePermissions(destination.resolve("dir1").resolve("module.jar")))
+                    .doesNotContain(PosixFilePermission.OWNER_WRITE, PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE);
+            assertThat(Files.getPosixFilePermissions(destination.resolve("root.txt")))
+                    .contains(PosixFilePermission.OWNER_WRITE);
+        }
+    }
+
+    @Test
+    void linkAllAcrossFileSystems(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 1, 1);
+        Files.write(source.resolve("dir0").resolve("module.jar"), "jar".getBytes(UTF_8));
+        Path other = Paths.get("/dev/shm");
+        assumeTrue(Files.isDirectory(other) && Files.isWritable(other) && !Files.getFileStore(other).equals(Files.getFileStore(temp)));
+        Path destination = Files.createTempDirectory(other, "beanzooka");
+        try {
+            assertThat(Util.isLinkSupported(source, destination)).isFalse();
+
+            Util.linkAllInParallel(source, destination, source.getFileSystem().getPathMatcher("glob:**.jar"), 2, size -> {
+            });
+
+            assertThat(destination.resolve("dir0").resolve("module.jar")).hasContent("jar");
+            assertThat(Files.isWritable(source.resolve("dir0").resolve("module.jar"))).isTrue();
+        } finally {
+            Util.deleteAll(destination);
+        }
+    }
+
+    @Test
+    void isLinkSupported(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 1, 1);
+        Path destination = temp.resolve("destination");
+
+        assertThat(Util.isLinkSupported(source, destination)).isTrue();
+        assertThat(destination).isEmptyDirectory();
+    }
+
+    @Test
+    void deleteAllReadOnly(@TempDir Path temp) throws IOException {
+        Path root = createTree(temp.resolve("root"), 1, 1);
+        assertThat(root.resolve("root.txt").toFile().setReadOnly()).isTrue();
+
+        Util.deleteAll(root);
+
+        assertThat(root).doesNotExist();
+    }
+
+    @Test
+    void reflinkAllOrFallback(@TempDir Path temp) throws IOException {
+        Path source = createTree(temp.resolve("source"), 2, 10);
+        Path destination = Files.createDirectory(temp.resolve("destination"));
+
+        if (!Util.reflinkAll(source, destination)) {
+            Util.copyAll(source, destination);
+        }
+
+        assertThat(countFiles(destination)).isEqualTo(countFiles(source));
+        assertThat(destination.resolve("dir1").resolve("file9.txt")).hasContent("dir1/file9");
+    }
+
+    private static Path createTree(Path root, int dirs, int filesPerDir) throws IOException {
+        Files.createDirectories(root);
+        Files.write(root.resolve("root.txt"), "root".getBytes(UTF_8));
+        for (int i = 0; i < dirs; i++) {
+            Path dir = Files.createDirectories(root.resolve("dir" + i));
+            for (int j = 0; j < filesPerDir; j++) {
+                Files.write(dir.resolve("file" + j + ".txt"), ("dir" + i + "/file" + j).getBytes(UTF_8));
+            }
+        }
+        return root;
+    }
+
+    private static long countFiles(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static long sizeOf(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void execute() throws IOException, InterruptedException {
+        assertThat(Util.execute(new ProcessBuilder("sh", "-c", "echo hello; echo world >&2").redirectErrorStream(true), 10, TimeUnit.SECONDS))
+                .hasValueSatisfying(lines -> assertThat(lines).containsExactlyInAnyOrder("hello", "world"));
+
+        // a child keeping the output open must not outlive the timeout
+        long start = System.nanoTime();
+        assertThat(Util.execute(new ProcessBuilder("sh", "-c", "sleep 30 & echo hello; sleep 30"), 1, TimeUnit.SECONDS))
+                .isEmpty();
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void executeDestroysProcessOnInterrupt() throws IOException {
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        try {
+            assertThatExceptionOfType(InterruptedException.class)
+                    .isThrownBy(() -> Util.execute(new ProcessBuilder("sh", "-c", "sleep 30"), 30, TimeUnit.SECONDS));
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+    }
+}
@@ -0,0 +1,141 @@
+package beanzooka.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmPoolTest {
+
+    @Test
+    void takeAndInvalidate() throws Exception {
+        WarmPool pool = new WarmPool(SessionEngine.DEFAULT, 2);
+        Configuration first = Fixtures.configuration().jdk(Fixtures.jdk("first")).build();
+        Configuration second = Fixtures.configuration().jdk(Fixtures.jdk("second")).build();
+
+        pool.setConfiguration(first);
+        awaitReady(pool, 2);
+
+        assertThat(pool.take(second)).isEmpty();
+        Optional<File> taken = pool.take(first);
+        assertThat(taken).hasValueSatisfying(dir -> assertThat(UserDir.resolveConfigFile(dir, "nb")).exists());
+        awaitReady(pool, 2);
+
+        pool.setConfiguration(second);
+        assertThat(pool.take(first)).isEmpty();
+        awaitReady(pool, 2);
+        assertThat(pool.take(second)).isPresent();
+
+        pool.clear();
+        assertThat(pool.getReadyCount()).isZero();
+    }
+
+    @Test
+    void invalidateChangedFiles(@TempDir Path temp) throws Exception {
+        WarmPool pool = new WarmPool(SessionEngine.DEFAULT, 1);
+        Path nbm = Fixtures.createModuleNbm(temp.resolve("p.nbm"), "p");
+        Configuration configuration = Fixtures.configuration().plugins(Collections.singletonList(Plugin.ofNbm(nbm.toFile()))).build();
+
+        pool.setConfiguration(configuration);
+        awaitReady(pool, 1);
+        Fingerprint before = awaitFingerprint(pool, null);
+
+        pool.setConfiguration(Fixtures.configuration().plugins(Collections.singletonList(Plugin.ofNbm(nbm.toFile()))).build());
+        assertThat(awaitFingerprint(pool, null)).isEqualTo(before);
+
+        Fixtures.createModuleNbm(nbm, "changed");
+        pool.setConfiguration(configuration);
+        assertThat(awaitFingerprint(pool, before)).isNotEqualTo(before);
+        awaitReady(pool, 1);
+
+        pool.clear();
+    }
+
+    @Test
+    void ignoreNonDisposableUserDir(@TempDir Path temp) {
+        WarmPool pool = new WarmPool(SessionEngine.DEFAULT, 2);
+        Configuration configuration = Fixtures.configuration().jdk(Fixtures.jdk("first")).userDir(Optional.of(UserDir.builder().label("dir").folder(temp.toFile()).build())).build();
+
+        pool.setConfiguration(configuration);
+
+        assertThat(pool.take(configuration)).isEmpty();
+        assertThat(pool.getReadyCount()).isZero();
+    }
+
+    @Test
+    void prepareOnLowPriorityThread() {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        File workingDir = SessionEngine.DEFAULT.prepareInBackground(Fixtures.configuration().build(), new LaunchListener() {
+            @Override
+            public void onStage(LaunchListener.Stage stage) {
+                thread.set(Thread.currentThread());
+            }
+        }).join();
+        TempDirs.DEFAULT.delete(workingDir);
+
+        assertThat(thread.get().getPriority()).isEqualTo(Thread.MIN_PRIORITY);
+        assertThat(thread.get().getName()).startsWith("beanzooka-prepare-background");
+    }
+
+    @Test
+    void deleteCancelledPreparation(@TempDir Path temp) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<File> slot = SessionEngine.DEFAULT.prepareInBackground(Fixtures.configuration().tempBaseDir(temp.toFile()).build(), new LaunchListener() {
+            @Override
+            public void onStage(LaunchListener.Stage stage) {
+                if (stage == LaunchListener.Stage.WRITE_CONFIG) {
+                    started.countDown();
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(listDirs(temp)).hasSize(1);
+
+        slot.cancel(true);
+
+        for (int i = 0; i < 500 && !listDirs(temp).isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(listDirs(temp)).isEmpty();
+    }
+
+    private static List<Path> listDirs(Path root) throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+    }
+
+    private static Fingerprint awaitFingerprint(WarmPool pool, Fingerprint previous) throws InterruptedException {
+        for (int i = 0; i < 500 && Objects.equals(pool.getFingerprint(), previous); i++) {
+            Thread.sleep(10);
+        }
+        return pool.getFingerprint();
+    }
+
+    private static void awaitReady(WarmPool pool, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && pool.getReadyCount() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.getReadyCount()).isEqualTo(count);
+    }
+}
@@ -26,6 +26,7 @@ class XmlResourcesTest {
                 .tempUserDirSelected(false)
                 .selectedUserDirIndex(0)
                 .selectedPluginIndex(0)
+                .flightRecordingSelected(true)
                 .build();
 
         Path file = dir.resolve("resources.xml");
@@ -35,6 +36,53 @@ class XmlResourcesTest {
         assertThat(loaded).isEqualTo(original);
     }
 
+    @Test
+    void roundTrip_cloneStrategy(@TempDir Path dir) throws IOException {
+        Resources original = Resources.builder()
+                .userDir(UserDir.builder().label("dir1").folder(Paths.get("/userdir").toFile()).clone(true)
+                        .cloneStrategy(UserDir.CloneStrategy.HARD_LINK).immutablePattern("{**.jar,var/cache/**}").build())
+                .userDir(UserDir.builder().label("dir2").folder(Paths.get("/userdir2").toFile()).clone(true)
+                        .cloneStrategy(UserDir.CloneStrategy.REFLINK).build())
+                .build();
+
+        Path file = dir.resolve("clone.xml");
+        XmlResources.write(file, original);
+        Resources loaded = XmlResources.read(file);
+
+        assertThat(loaded).isEqualTo(original);
+    }
+
+    @Test
+    void roundTrip_baseDir(@TempDir Path dir) throws IOException {
+        Resources original = Resources.builder()
+                .userDir(UserDir.builder().label("dir1").folder(Paths.get("/userdir").toFile()).clone(true)
+                        .baseDir(Paths.get("/dev/shm").toFile()).build())
+                .tempBaseDir(Paths.get("/dev/shm").toFile())
+                .build();
+
+        Path file = dir.resolve("baseDir.xml");
+        XmlResources.write(file, original);
+        Resources loaded = XmlResources.read(file);
+
+        assertThat(loaded).isEqualTo(original);
+    }
+
+    @Test
+    void backwardCompatible_noCloneStrategy(@TempDir Path dir) throws IOException {
+        String xml = "<?xml version=\"1.0\" ?>"
+                + "<resources>"
+                + "<userDirs><userDir><label>dir1</label><folder>/userdir</folder><clone>true</clone></userDir></userDirs>"
+                + "</resources>";
+
+        Path file = dir.resolve("old.xml");
+        Files.write(file, xml.getBytes(StandardCharsets.UTF_8));
+        UserDir loaded = XmlResources.read(file).getUserDirs().get(0);
+
+        assertThat(loaded.isClone()).isTrue();
+        assertThat(loaded.getCloneStrategy()).isEqualTo(UserDir.CloneStrategy.COPY);
+        assertThat(loaded.getImmutablePattern()).isEqualTo(UserDir.DEFAULT_IMMUTABLE_PATTERN);
+    }
+
     @Test
     void backwardCompatible_noSelection(@TempDir Path dir) throws IOException {
         // XML produced by an old version of Beanzooka — no <selection> block
@@ -63,6 +111,7 @@ class XmlResourcesTest {
                 .selectedUserDirIndex(3)
                 .selectedPluginIndex(0)
                 .selectedPluginIndex(1)
+                .sharedPluginsSelected(true)
                 .build();
 
         Path file = dir.resolve("sel.xml");
@@ -74,6 +123,7 @@ class XmlResourcesTest {
         assertThat(loaded.isTempUserDirSelected()).isFalse();
         assertThat(loaded.getSelectedUserDirIndex()).isEqualTo(3);
         assertThat(loaded.getSelectedPluginIndices()).containsExactly(0, 1);
+        assertThat(loaded.isSharedPluginsSelected()).isTrue();
     }
 
     @Test
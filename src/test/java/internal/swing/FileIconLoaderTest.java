@@ -0,0 +1,119 @@
+package internal.swing;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileIconLoaderTest {
+
+    private static final Icon ICON = new ImageIcon();
+
+    @Test
+    void deduplication() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        FileIconLoader x = new FileIconLoader(1, 10, 10, file -> {
+            loads.incrementAndGet();
+            await(release);
+            return ICON;
+        });
+
+        CountDownLatch loaded = new CountDownLatch(1);
+        File file = new File("a");
+        assertThat(x.getIcon(file, loaded::countDown)).isNull();
+        assertThat(x.getIcon(file, loaded::countDown)).isNull();
+        assertThat(x.getIcon(file.getAbsoluteFile(), loaded::countDown)).isNull();
+
+        release.countDown();
+        assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(x.getIcon(file, () -> {
+        })).isSameAs(ICON);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void queueDepth() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        FileIconLoader x = new FileIconLoader(1, 2, 10, file -> {
+            await(release);
+            return ICON;
+        });
+
+        CountDownLatch loaded = new CountDownLatch(3);
+        for (int i = 0; i < 5; i++) {
+            x.getIcon(new File("f" + i), loaded::countDown);
+        }
+        assertThat(x.getQueueDepth()).isEqualTo(2);
+
+        release.countDown();
+        assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(x.getQueueDepth()).isZero();
+        assertThat(x.getCacheSize()).isEqualTo(3);
+    }
+
+    @Test
+    void leastRecentlyUsed() throws InterruptedException {
+        FileIconLoader x = new FileIconLoader(1, 10, 2, file -> ICON);
+
+        load(x, new File("a"));
+        load(x, new File("b"));
+        assertThat(x.getIcon(new File("a"), () -> {
+        })).isSameAs(ICON);
+        load(x, new File("c"));
+
+        assertThat(x.getCacheSize()).isEqualTo(2);
+        assertThat(x.getIcon(new File("a"), () -> {
+        })).isSameAs(ICON);
+        assertThat(x.getIcon(new File("b"), () -> {
+        })).isNull();
+    }
+
+    @Test
+    void noIcon() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        FileIconLoader x = new FileIconLoader(1, 10, 10, file -> {
+            loads.incrementAndGet();
+            if (file.getName().equals("missing")) {
+                return null;
+            }
+            if (file.getName().equals("broken")) {
+                throw new IllegalStateException();
+            }
+            return ICON;
+        });
+
+        AtomicInteger repaints = new AtomicInteger();
+        assertThat(x.getIcon(new File("missing"), repaints::incrementAndGet)).isNull();
+        assertThat(x.getIcon(new File("broken"), repaints::incrementAndGet)).isNull();
+        // single thread: once this one is loaded, the previous ones are done
+        load(x, new File("a"));
+        assertThat(repaints).hasValue(0);
+        assertThat(loads).hasValue(3);
+
+        assertThat(x.getIcon(new File("missing"), repaints::incrementAndGet)).isNull();
+        assertThat(x.getIcon(new File("broken"), repaints::incrementAndGet)).isNull();
+        load(x, new File("b"));
+        assertThat(repaints).hasValue(0);
+        assertThat(loads).hasValue(4);
+    }
+
+    private static void load(FileIconLoader loader, File file) throws InterruptedException {
+        CountDownLatch loaded = new CountDownLatch(1);
+        assertThat(loader.getIcon(file, loaded::countDown)).isNull();
+        assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}